@@ -0,0 +1,140 @@
+package com.example.paymentservice.benchmark;
+
+import com.example.paymentservice.dto.UserAccountsResponse;
+import com.example.paymentservice.dto.plaid.AccountsGetResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and serializes the GET /api/user/accounts response: the nested HashMaps the controller used
+ * to build versus the UserAccountsResponse records, each with and without Blackbird.
+ * Run with the gc profiler (enabled in build.gradle) and compare gc.alloc.rate.norm, the bytes
+ * allocated per response. Output goes to a discarding stream, as the servlet response would take it.
+ * No results have been recorded yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountsResponseBenchmark {
+
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    @Param({"2", "10"})
+    private int items;
+
+    @Param({"4"})
+    private int accountsPerItem;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private List<AccountsGetResponse> responses;
+    private Map<String, String> fetchedLogoUrls;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        if (blackbird) {
+            objectMapper.registerModule(new BlackbirdModule());
+        }
+        responses = new ArrayList<>();
+        fetchedLogoUrls = new HashMap<>();
+        for (int i = 0; i < items; i++) {
+            AccountsGetResponse.Item item = new AccountsGetResponse.Item();
+            item.setItemId("item-" + i);
+            item.setInstitutionId("ins_" + i);
+            if (i % 2 == 0) {
+                fetchedLogoUrls.put(item.getItemId(), "https://logos.example.com/" + i + ".png");
+            }
+            List<AccountsGetResponse.Account> accounts = new ArrayList<>();
+            for (int j = 0; j < accountsPerItem; j++) {
+                AccountsGetResponse.Balances balances = new AccountsGetResponse.Balances();
+                balances.setAvailable(1000.0 + j);
+                balances.setCurrent(1200.5 + j);
+                balances.setIsoCurrencyCode("USD");
+                AccountsGetResponse.Account account = new AccountsGetResponse.Account();
+                account.setAccountId("account-" + i + "-" + j);
+                account.setName("Checking " + j);
+                account.setType("depository");
+                account.setSubtype("checking");
+                account.setMask(String.format("%04d", j));
+                account.setBalances(balances);
+                accounts.add(account);
+            }
+            AccountsGetResponse response = new AccountsGetResponse();
+            response.setItem(item);
+            response.setAccounts(accounts);
+            responses.add(response);
+        }
+    }
+
+    @Benchmark
+    public void nestedMaps() throws IOException {
+        objectMapper.writeValue(DISCARD, legacyResponse());
+    }
+
+    @Benchmark
+    public void typedRecords() throws IOException {
+        objectMapper.writeValue(DISCARD, UserAccountsResponse.from(responses, fetchedLogoUrls));
+    }
+
+    /**
+     * The map-building code UserAccountsController used before UserAccountsResponse, kept as the baseline.
+     */
+    private Map<String, Object> legacyResponse() {
+        List<Map<String, Object>> allAccounts = new ArrayList<>();
+        List<Map<String, Object>> itemMaps = new ArrayList<>();
+        for (AccountsGetResponse response : responses) {
+            for (AccountsGetResponse.Account account : response.getAccounts()) {
+                Map<String, Object> accountMap = new HashMap<>();
+                accountMap.put("account_id", account.getAccountId());
+                accountMap.put("name", account.getName());
+                accountMap.put("type", account.getType());
+                accountMap.put("subtype", account.getSubtype());
+                accountMap.put("mask", account.getMask());
+                Map<String, Object> balances = new HashMap<>();
+                balances.put("available", account.getBalances().getAvailable());
+                balances.put("current", account.getBalances().getCurrent());
+                balances.put("limit", account.getBalances().getLimit());
+                balances.put("iso_currency_code", account.getBalances().getIsoCurrencyCode());
+                accountMap.put("balances", balances);
+                accountMap.put("institution_id", response.getItem().getInstitutionId());
+                accountMap.put("item_id", response.getItem().getItemId());
+                accountMap.put("institution_icon_url", legacyLogoUrl(response.getItem()));
+                allAccounts.add(accountMap);
+            }
+            Map<String, Object> itemMap = new HashMap<>();
+            itemMap.put("item_id", response.getItem().getItemId());
+            itemMap.put("institution_id", response.getItem().getInstitutionId());
+            itemMap.put("institution_icon_url", legacyLogoUrl(response.getItem()));
+            itemMaps.add(itemMap);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("accounts", allAccounts);
+        response.put("items", itemMaps);
+        response.put("total_accounts", allAccounts.size());
+        return response;
+    }
+
+    private String legacyLogoUrl(AccountsGetResponse.Item item) {
+        if (item.getLogoUrl() != null && !item.getLogoUrl().isEmpty()) {
+            return item.getLogoUrl();
+        } else if (fetchedLogoUrls.containsKey(item.getItemId())) {
+            return fetchedLogoUrls.get(item.getItemId());
+        }
+        return "https://cdn.plaid.com/institutions/logos/" + item.getInstitutionId() + ".png";
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.paymentservice.benchmark;
+
+import com.example.paymentservice.dto.plaid.TransactionsGetResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode time of a 5,000-transaction /api/user/transactions response as JSON, CBOR and Smile.
+ * The mappers are configured like the application's (spring.jackson settings, Blackbird).
+ * Payload sizes are printed once per trial; compare them alongside the timings.
+ * Not run yet: whether CBOR or Smile beats compressed JSON for these responses is still open.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    private static final String[] MERCHANTS = {"Starbucks", "Uber", "Whole Foods", "Shell", "Netflix", "Amazon"};
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"5000"})
+    private int transactions;
+
+    private ObjectMapper objectMapper;
+    private TransactionsGetResponse response;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .modules(new BlackbirdModule());
+        objectMapper = switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> builder.build();
+        };
+
+        List<TransactionsGetResponse.Transaction> rows = new ArrayList<>(transactions);
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < transactions; i++) {
+            TransactionsGetResponse.Transaction transaction = new TransactionsGetResponse.Transaction();
+            transaction.setTransactionId("tx-" + Integer.toHexString(i * 7919) + "-benchmark");
+            transaction.setAccountId("account-" + (i % 4));
+            transaction.setAmount(Math.round((i % 500) * 1.37 * 100) / 100.0);
+            transaction.setDate(today.minusDays(i % 365).toString());
+            transaction.setName(MERCHANTS[i % MERCHANTS.length] + " #" + (i % 97));
+            transaction.setMerchantName(MERCHANTS[i % MERCHANTS.length]);
+            transaction.setCategory(List.of("Food and Drink", "Restaurants"));
+            transaction.setCategoryId("13005000");
+            transaction.setPaymentChannel("in store");
+            transaction.setPending(i % 50 == 0);
+            transaction.setIsoCurrencyCode("USD");
+            rows.add(transaction);
+        }
+        response = new TransactionsGetResponse();
+        response.setTransactions(rows);
+        response.setTotalTransactions(transactions);
+
+        encoded = objectMapper.writeValueAsBytes(response);
+        System.out.printf("%n%s payload for %d transactions: %,d bytes%n", format, transactions, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public TransactionsGetResponse decode() throws IOException {
+        return objectMapper.readValue(encoded, TransactionsGetResponse.class);
+    }
+}
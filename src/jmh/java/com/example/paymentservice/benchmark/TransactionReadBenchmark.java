@@ -0,0 +1,107 @@
+package com.example.paymentservice.benchmark;
+
+import com.example.paymentservice.PaymentServiceApplication;
+import com.example.paymentservice.repository.TransactionRepository;
+import com.example.paymentservice.service.CategoryDictionary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares full Transaction entity hydration with TransactionRow projections for a history read.
+ * Run with the gc profiler (enabled in build.gradle) and compare gc.alloc.rate.norm per operation.
+ * Requires a PostgreSQL database configured through DATABASE_URL or POSTGRES_* variables.
+ * <p>
+ * It has not been run against such a database yet, so there are no numbers behind the projection reads.
+ * They are preferred because they read fewer columns and leave nothing in the persistence context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionReadBenchmark {
+
+    private static final String AUTH0_USER_ID = "benchmark|transaction-read";
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PaymentServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        transactionRepository = context.getBean(TransactionRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        endDate = LocalDate.now();
+        startDate = endDate.minusDays(364);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM users WHERE auth0_user_id = ?", AUTH0_USER_ID);
+        UUID userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (auth0_user_id) VALUES (?) RETURNING id", UUID.class, AUTH0_USER_ID);
+
+        CategoryDictionary categoryDictionary = context.getBean(CategoryDictionary.class);
+        Short[] categoryKeys = new Short[12];
+        for (int c = 0; c < categoryKeys.length; c++) {
+            categoryKeys[c] = categoryDictionary.intern(List.of("Benchmark", "Category " + c), null);
+        }
+
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{
+                    userId,
+                    "bench-" + UUID.randomUUID(),
+                    "account-" + (i % 3),
+                    BigDecimal.valueOf(i % 500, 2),
+                    endDate.minusDays(i % 365),
+                    "Merchant " + (i % 40),
+                    categoryKeys[i % 12],
+                    "Purchase " + i,
+                    i % 20 == 0
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (user_id, plaid_transaction_id, account_id, amount, date, " +
+                "merchant_name, category_key, name, pending) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).update("DELETE FROM users WHERE auth0_user_id = ?", AUTH0_USER_ID);
+        context.close();
+    }
+
+    @Benchmark
+    public Object entities() {
+        return readOnlyTransaction.execute(status ->
+                transactionRepository.findByAuth0UserIdAndDateBetween(AUTH0_USER_ID, startDate, endDate));
+    }
+
+    @Benchmark
+    public Object projections() {
+        return readOnlyTransaction.execute(status ->
+                transactionRepository.findRowsByAuth0UserIdAndDateBetween(AUTH0_USER_ID, startDate, endDate));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.paymentservice.benchmark;
+
+import com.example.paymentservice.PaymentServiceApplication;
+import com.example.paymentservice.entity.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares batched inserts keyed by random v4 UUIDs with inserts keyed by time-ordered UUIDv7,
+ * into a scratch table shaped like 'transactions' (same primary key) that already holds
+ * {@code existingRows} rows. Besides throughput, the primary key index size and its leaf density
+ * are printed at the end of each trial; those show whether v7 keys really append where v4 keys split pages.
+ * Requires a PostgreSQL database configured through DATABASE_URL or POSTGRES_* variables.
+ * No results have been recorded yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UuidKeyInsertBenchmark {
+
+    private static final String TABLE = "benchmark_uuid_keys";
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"v4", "v7"})
+    private String keyVersion;
+
+    @Param({"500000"})
+    private int existingRows;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private UUID userId;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PaymentServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userId = UUID.randomUUID();
+        today = LocalDate.now();
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (" +
+                "id UUID NOT NULL, user_id UUID NOT NULL, plaid_transaction_id VARCHAR(255) NOT NULL, " +
+                "amount DECIMAL(19, 4) NOT NULL, date DATE NOT NULL, name VARCHAR(500), " +
+                "PRIMARY KEY (id, date))");
+        for (int inserted = 0; inserted < existingRows; inserted += BATCH_SIZE) {
+            insertBatch();
+        }
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pgstattuple");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        String indexName = TABLE + "_pkey";
+        Long indexBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(CAST(? AS regclass))", Long.class, indexName);
+        Double leafDensity = jdbcTemplate.queryForObject(
+                "SELECT avg_leaf_density FROM pgstatindex(?)", Double.class, indexName);
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE, Long.class);
+        System.out.printf("%n[%s] %d rows, primary key index %d KiB, avg leaf density %.1f%%%n",
+                keyVersion, rows, indexBytes / 1024, leafDensity);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + TABLE);
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UUID id = "v7".equals(keyVersion) ? UuidV7Generator.generateUuid() : UUID.randomUUID();
+            batch.add(new Object[]{id, userId, "bench-" + id, BigDecimal.valueOf(i % 500, 2),
+                    today.minusDays(i % 365), "Purchase " + i});
+        }
+        return jdbcTemplate.batchUpdate("INSERT INTO " + TABLE +
+                " (id, user_id, plaid_transaction_id, amount, date, name) VALUES (?, ?, ?, ?, ?, ?)", batch);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.paymentservice.benchmark;
+
+import com.example.paymentservice.PaymentServiceApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of Tomcat on platform threads versus virtual threads while Plaid is slow.
+ * Each operation fires {@code concurrency} simultaneous POST /api/plaid/link-token/create requests against
+ * the running application, whose Plaid base URL points at a local stub that answers after plaidLatencyMs.
+ * Throughput is concurrency / average time per operation. Nothing has been measured with it yet; a lower
+ * average time for the virtual variant is the result that would justify enabling virtual threads.
+ * <p>
+ * Must run on Java 21+: on 17 Spring Boot ignores spring.threads.virtual.enabled and both variants
+ * use platform threads. Rate limiting and the concurrency limit are disabled so only the thread model
+ * is measured. Requires a PostgreSQL database configured through DATABASE_URL or POSTGRES_* variables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    private static final byte[] LINK_TOKEN_RESPONSE =
+            "{\"link_token\":\"link-sandbox-benchmark\",\"expiration\":\"2030-01-01T00:00:00Z\",\"request_id\":\"benchmark\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"2000"})
+    private int concurrency;
+
+    @Param({"200"})
+    private int plaidLatencyMs;
+
+    private HttpServer slowPlaid;
+    private ExecutorService slowPlaidExecutor;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        slowPlaid = HttpServer.create(new InetSocketAddress("localhost", 0), concurrency);
+        slowPlaidExecutor = Executors.newCachedThreadPool();
+        slowPlaid.setExecutor(slowPlaidExecutor);
+        slowPlaid.createContext("/", exchange -> {
+            try {
+                Thread.sleep(plaidLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, LINK_TOKEN_RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(LINK_TOKEN_RESPONSE);
+            }
+        });
+        slowPlaid.start();
+
+        context = new SpringApplicationBuilder(PaymentServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.accept-count=" + concurrency,
+                        "plaid.base-url=http://localhost:" + slowPlaid.getAddress().getPort(),
+                        "app.rate-limit.capacity=1000000000",
+                        "app.concurrency-limit.enabled=false",
+                        "logging.level.com.example.paymentservice=WARN")
+                .run();
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/plaid/link-token/create"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        slowPlaid.stop(0);
+        slowPlaidExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burstOfSlowPlaidRequests() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int succeeded = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                succeeded++;
+            }
+        }
+        if (succeeded != concurrency) {
+            throw new IllegalStateException(succeeded + " of " + concurrency + " requests succeeded");
+        }
+        return succeeded;
+    }
+}
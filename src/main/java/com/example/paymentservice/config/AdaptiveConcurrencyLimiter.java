@@ -0,0 +1,175 @@
+package com.example.paymentservice.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounds the number of requests in flight, with a limit that follows observed latency.
+ * <p>
+ * The limit is adjusted with a gradient algorithm: a long-term average of request latency is the
+ * baseline, a short-term average the current reading. While they agree the limit grows by a small
+ * queue allowance; when latency rises above the baseline (Plaid or the database slowing down) the
+ * limit shrinks by their ratio, so excess requests are turned away instead of piling up in Tomcat.
+ * <p>
+ * Standard requests may only use a share of the limit; critical ones may use all of it. A small
+ * number of requests may wait briefly for a permit; beyond that they are rejected immediately.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        /** Health and config: cheap, never limited. */
+        CHEAP,
+        STANDARD,
+        /** Token exchange: a user is mid-way through linking a bank; last to be shed. */
+        CRITICAL
+    }
+
+    private static final int LONG_WINDOW = 600;
+    private static final int SHORT_WINDOW = 10;
+    private static final double RTT_TOLERANCE = 1.5;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double standardShare;
+    private final int maxQueue;
+    private final long maxQueueWaitNanos;
+
+    private double limit;
+    private double longRtt;
+    private double shortRtt;
+    private int inFlight;
+    private int queued;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                                      double standardShare, int maxQueue, Duration maxQueueWait) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.standardShare = standardShare;
+        this.maxQueue = maxQueue;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+    }
+
+    /**
+     * Takes a permit, waiting up to the queue wait if none is free and the queue has room.
+     * Every successful acquire must be paired with {@link #release(long)}.
+     *
+     * @return Whether the request may proceed
+     */
+    public boolean acquire(Priority priority) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < allowed(priority)) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= maxQueue) {
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = maxQueueWaitNanos;
+                while (inFlight >= allowed(priority)) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a permit and feeds the request's latency into the limit.
+     */
+    public void release(long rttNanos) {
+        lock.lock();
+        try {
+            update(rttNanos, inFlight);
+            inFlight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seconds a rejected client should wait, from the current latency baseline; at least one.
+     */
+    public long retryAfterSeconds() {
+        lock.lock();
+        try {
+            return Math.max(1, (long) Math.ceil(longRtt / TimeUnit.SECONDS.toNanos(1)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int allowed(Priority priority) {
+        return priority == Priority.CRITICAL ? (int) limit : Math.max(1, (int) (limit * standardShare));
+    }
+
+    private void update(long rttNanos, int inFlightAtCompletion) {
+        if (longRtt == 0) {
+            longRtt = rttNanos;
+            shortRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+        longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+
+        // After a slow period the baseline lags far behind; let it recover faster
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // Far below the limit the latency says nothing about capacity, so don't grow
+        if (inFlightAtCompletion < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + target * smoothing));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.paymentservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Enables @Async methods. They run on Spring Boot's applicationTaskExecutor: virtual threads when
+ * spring.threads.virtual.enabled is set (Java 21+), otherwise the spring.task.execution pool.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Applied by Spring Boot to applicationTaskExecutor, so fan-out work keeps the request's user.
+     */
+    @Bean
+    public TaskDecorator requestContextTaskDecorator() {
+        return new RequestContextTaskDecorator();
+    }
+}
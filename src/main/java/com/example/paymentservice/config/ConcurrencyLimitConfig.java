@@ -0,0 +1,82 @@
+package com.example.paymentservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Adaptive concurrency limiting in front of the controllers (see AdaptiveConcurrencyLimiter).
+ * Complements the per-client rate limit: that one stops a single client from hogging the service,
+ * this one stops the service from accepting more work than Plaid and the database currently sustain.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Default configuration:
+     * - Starts at 20 requests in flight and moves between 4 and 200
+     * - Standard requests may use 90% of the limit, the token exchange all of it
+     * - Up to 50 requests wait at most 100ms for a permit
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            @Value("${app.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${app.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${app.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${app.concurrency-limit.smoothing:0.2}") double smoothing,
+            @Value("${app.concurrency-limit.standard-share:0.9}") double standardShare,
+            @Value("${app.concurrency-limit.max-queue:50}") int maxQueue,
+            @Value("${app.concurrency-limit.max-queue-wait:100ms}") Duration maxQueueWait) {
+        log.info("Adaptive concurrency limit enabled (initial {}, range {}-{})", initialLimit, minLimit, maxLimit);
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, smoothing,
+                standardShare, maxQueue, maxQueueWait);
+    }
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter limiter,
+            @Value("${app.concurrency-limit.cheap-paths:/,/health,/api/config,/api/plaid/health,/actuator/**}") List<String> cheapPaths,
+            @Value("${app.concurrency-limit.critical-paths:/api/plaid/access-token/exchange}") List<String> criticalPaths) {
+        return new ConcurrencyLimitFilter(limiter, cheapPaths, criticalPaths);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitFilter filter) {
+        return registry -> {
+            Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive limit on requests in flight")
+                    .register(registry);
+            Gauge.builder("http.server.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Limited requests currently in flight")
+                    .register(registry);
+            Gauge.builder("http.server.concurrency.queue.depth", limiter, AdaptiveConcurrencyLimiter::getQueueDepth)
+                    .description("Requests waiting for a permit")
+                    .register(registry);
+            for (AdaptiveConcurrencyLimiter.Priority priority : AdaptiveConcurrencyLimiter.Priority.values()) {
+                FunctionCounter.builder("http.server.concurrency.rejected", filter, f -> f.rejectedCount(priority))
+                        .description("Requests shed with 503 by the concurrency limit")
+                        .tag("priority", priority.name().toLowerCase())
+                        .register(registry);
+            }
+        };
+    }
+}
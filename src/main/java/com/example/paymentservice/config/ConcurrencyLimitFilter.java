@@ -0,0 +1,158 @@
+package com.example.paymentservice.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sheds load with 503 + Retry-After once more requests are in flight than {@link AdaptiveConcurrencyLimiter}
+ * allows. Requests are classified by path: cheap ones (health, config) pass untouched, critical ones
+ * (token exchange) may use the whole limit, everything else a share of it.
+ * Registered by ConcurrencyLimitConfig, after the security filters so rejections still carry CORS headers.
+ */
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final List<String> cheapPaths;
+    private final List<String> criticalPaths;
+    private final Map<AdaptiveConcurrencyLimiter.Priority, LongAdder> rejected =
+            new EnumMap<>(AdaptiveConcurrencyLimiter.Priority.class);
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, List<String> cheapPaths, List<String> criticalPaths) {
+        this.limiter = limiter;
+        this.cheapPaths = cheapPaths;
+        this.criticalPaths = criticalPaths;
+        for (AdaptiveConcurrencyLimiter.Priority priority : AdaptiveConcurrencyLimiter.Priority.values()) {
+            rejected.put(priority, new LongAdder());
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter.Priority priority = priorityOf(request.getRequestURI());
+        if (priority == AdaptiveConcurrencyLimiter.Priority.CHEAP) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = limiter.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response, priority);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            if (async) {
+                // The permit is held until the async response completes
+                request.getAsyncContext().addListener(new ReleasingListener(start));
+            }
+        } finally {
+            if (!async) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * @return Requests rejected so far for the priority
+     */
+    public long rejectedCount(AdaptiveConcurrencyLimiter.Priority priority) {
+        return rejected.get(priority).sum();
+    }
+
+    private AdaptiveConcurrencyLimiter.Priority priorityOf(String path) {
+        if (matchesAny(cheapPaths, path)) {
+            return AdaptiveConcurrencyLimiter.Priority.CHEAP;
+        }
+        if (matchesAny(criticalPaths, path)) {
+            return AdaptiveConcurrencyLimiter.Priority.CRITICAL;
+        }
+        return AdaptiveConcurrencyLimiter.Priority.STANDARD;
+    }
+
+    private static boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        AdaptiveConcurrencyLimiter.Priority priority) throws IOException {
+        rejected.get(priority).increment();
+        log.warn("Shedding {} request {} (concurrency limit {}, queued {})",
+                priority, request.getRequestURI(), limiter.getLimit(), limiter.getQueueDepth());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.retryAfterSeconds()));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"Service overloaded\",\"message\":\"Too many requests in progress. Please try again shortly.\"}");
+    }
+
+    private class ReleasingListener implements AsyncListener {
+
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingListener(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // The same request re-entered async mode; keep listening
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+    }
+}
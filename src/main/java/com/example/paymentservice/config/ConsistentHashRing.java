@@ -0,0 +1,73 @@
+package com.example.paymentservice.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring mapping keys (Auth0 user IDs) to node names (shards).
+ * Each node owns a number of virtual points on a 64-bit ring and a key belongs to the first point
+ * at or after its hash. Adding a node therefore only takes over the keys that land on its own points,
+ * about 1/N of them, and never moves a key between two nodes that were already there.
+ * Hashes are the first 8 bytes of MD5, so placement is the same on every instance and across restarts.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * @param nodes Distinct node names
+     * @param virtualNodes Points per node on the ring; more points spread keys more evenly
+     * @throws IllegalArgumentException if there are no nodes, duplicate nodes or fewer than one point per node
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1, got " + virtualNodes);
+        }
+        if (new HashSet<>(nodes).size() != nodes.size()) {
+            throw new IllegalArgumentException("Duplicate node names: " + nodes);
+        }
+        this.nodes = List.copyOf(nodes);
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * @param key Key to place, e.g. an Auth0 user ID
+     * @return Name of the node owning the key
+     */
+    public String nodeFor(String key) {
+        Map.Entry<Long, String> owner = ring.ceilingEntry(hash(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @return Node names, in configuration order
+     */
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.service.CurrentUserContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Clears {@link CurrentUserContext} after every request so pooled threads never carry a user over.
+ */
+@Component
+public class CurrentUserContextFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            CurrentUserContext.clear();
+        }
+    }
+}
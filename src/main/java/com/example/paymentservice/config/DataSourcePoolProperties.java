@@ -0,0 +1,56 @@
+package com.example.paymentservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * HikariCP and PostgreSQL driver settings applied by DatabaseConfig to every pool it builds.
+ * Size the primary pool against server.tomcat.threads.max using the published
+ * hikaricp.connections.* metrics rather than guessing.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.pool")
+public class DataSourcePoolProperties {
+
+    private int maximumPoolSize = 10;
+
+    /**
+     * Minimum idle connections; null keeps a fixed-size pool (equal to maximumPoolSize).
+     */
+    private Integer minimumIdle;
+
+    /**
+     * Longest a request waits for a connection before failing.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(30);
+
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Duration maxLifetime = Duration.ofMinutes(30);
+
+    /**
+     * Log a stack trace for connections held longer than this; zero disables leak detection.
+     */
+    private Duration leakDetectionThreshold = Duration.ofSeconds(60);
+
+    /**
+     * Executions of a statement before the driver switches to a server-side prepared statement.
+     */
+    private int prepareThreshold = 5;
+
+    /**
+     * Prepared statements cached per connection by the PostgreSQL driver.
+     */
+    private int preparedStatementCacheQueries = 256;
+
+    private int preparedStatementCacheSizeMiB = 5;
+
+    /**
+     * Lets the PostgreSQL driver rewrite a JDBC insert batch into multi-row INSERT statements.
+     */
+    private boolean reWriteBatchedInserts = true;
+}
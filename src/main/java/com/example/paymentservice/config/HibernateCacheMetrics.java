@@ -0,0 +1,45 @@
+package com.example.paymentservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a hit-ratio gauge per Hibernate second-level cache region.
+ * Spring Boot already exports the raw hibernate.second.level.cache.requests counters; the ratio
+ * is what the region sizes and TTLs in ehcache.xml are tuned against.
+ * Requires hibernate.generate_statistics, otherwise every ratio is NaN.
+ */
+@Component
+@RequiredArgsConstructor
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+                    .description("Share of second-level cache lookups served from the region")
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long hits = regionStatistics.getHitCount();
+        long lookups = hits + regionStatistics.getMissCount();
+        return lookups > 0 ? (double) hits / lookups : Double.NaN;
+    }
+}
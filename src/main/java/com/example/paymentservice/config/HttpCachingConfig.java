@@ -0,0 +1,50 @@
+package com.example.paymentservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+
+/**
+ * Conditional GET for the per-user read endpoints that clients poll.
+ * <p>
+ * Plaid's /transactions/get and /accounts/get return no sync cursor or version to derive an ETag from,
+ * so the ETag is a strong MD5 hash of the response body. An unchanged response is answered with
+ * 304 and no body, skipping the transfer and its compression. The responses are marked private,
+ * no-cache so browsers keep them and revalidate with If-None-Match instead of re-downloading.
+ */
+@Configuration
+public class HttpCachingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> userDataEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new UserDataEtagFilter());
+        registration.addUrlPatterns(
+                "/api/user/accounts", "/api/user/accounts/*",
+                "/api/user/transactions", "/api/user/transactions/*",
+                "/api/user/dashboard", "/api/user/dashboard/*");
+        return registration;
+    }
+
+    private static class UserDataEtagFilter extends ShallowEtagHeaderFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            if ("GET".equals(request.getMethod())) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+                // The body depends on the user and on the negotiated format (JSON, CBOR or Smile)
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION + ", " + HttpHeaders.ACCEPT);
+            }
+            super.doFilterInternal(request, response, filterChain);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.paymentservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+
+import java.time.Duration;
+
+/**
+ * In-memory {@link RateLimiter} with one Bucket4j bucket per key.
+ * Buckets live in a Caffeine cache bounded by size and idle time, so a flood of new IP addresses
+ * costs at most maxKeys buckets; eviction keeps frequently seen clients (W-TinyLFU). Buckets are
+ * created inside the cache's striped compute, and consuming from a bucket is a lock-free CAS.
+ * An evicted client starts over with a full bucket, which is why idle expiry should exceed the refill period.
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, Bucket> buckets;
+    private final long capacity;
+    private final Duration refillPeriod;
+
+    public LocalRateLimiter(long capacity, Duration refillPeriod, long maxKeys, Duration idleExpiry) {
+        this.capacity = capacity;
+        this.refillPeriod = refillPeriod;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    @Override
+    public Result tryConsume(String key, long tokens) {
+        Bucket bucket = buckets.get(key, k -> newBucket());
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(tokens);
+        return new Result(probe.isConsumed(), probe.getRemainingTokens(),
+                Duration.ofNanos(probe.getNanosToWaitForRefill()));
+    }
+
+    @Override
+    public void charge(String key, long tokens) {
+        buckets.get(key, k -> newBucket()).consumeIgnoringRateLimits(tokens);
+    }
+
+    @Override
+    public void refund(String key, long tokens) {
+        Bucket bucket = buckets.getIfPresent(key);
+        if (bucket != null) {
+            bucket.addTokens(tokens);
+        }
+    }
+
+    /**
+     * @return Number of buckets currently held (approximate until {@link #cleanUp()})
+     */
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Runs pending evictions now instead of on later cache activity.
+     */
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    private Bucket newBucket() {
+        return Bucket.builder()
+                .addLimit(Bandwidth.classic(capacity, Refill.intervally(capacity, refillPeriod)))
+                .build();
+    }
+}
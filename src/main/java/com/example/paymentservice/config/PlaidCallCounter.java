@@ -0,0 +1,43 @@
+package com.example.paymentservice.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the Plaid calls made while serving a request, so RateLimitingInterceptor can settle the
+ * request's real cost. The counter is a request attribute; calls made outside a request
+ * (scheduled jobs) or on threads without the request bound are not counted.
+ */
+public final class PlaidCallCounter {
+
+    private static final String ATTRIBUTE = PlaidCallCounter.class.getName();
+
+    private PlaidCallCounter() {
+    }
+
+    static void start(HttpServletRequest request) {
+        request.setAttribute(ATTRIBUTE, new AtomicInteger());
+    }
+
+    static int count(HttpServletRequest request) {
+        Object counter = request.getAttribute(ATTRIBUTE);
+        return counter instanceof AtomicInteger calls ? calls.get() : 0;
+    }
+
+    /**
+     * Records one outgoing Plaid call against the current request, if there is one.
+     */
+    public static void record() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        Object counter = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (counter instanceof AtomicInteger calls) {
+            calls.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.paymentservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link RateLimiter} whose buckets live in the 'rate_limit_buckets' table, so the limit holds across
+ * all instances rather than per instance.
+ * <p>
+ * Instances do not go to the database for every request: each one borrows a lease of up to
+ * leaseSize tokens per key and serves requests from it until it runs out or expires. Borrowed tokens
+ * are deducted from the shared bucket up front, so the cluster never admits more than the limit. Tokens
+ * left in an expired or evicted lease are given back to the shared bucket, so a slow client is charged
+ * for the requests it makes, not for the leases it borrowed.
+ * <p>
+ * Borrowing reads the bucket, refills it from the database clock and writes it back with a
+ * compare-and-swap on the row version, retrying on conflict; no row locks or transactions are held.
+ * Refill matches the local limiter's {@code Refill.intervally}: the whole capacity comes back at once
+ * per elapsed refill period, so both modes enforce the same limit.
+ * The table lives on the primary shard. If the database is unavailable, requests fall back to the
+ * per-instance limiter.
+ */
+@Slf4j
+public class PostgresRateLimiter implements RateLimiter {
+
+    private static final String SELECT_SQL =
+            "SELECT tokens, refilled_at_ms, version, " +
+            "CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000 AS BIGINT) AS now_ms " +
+            "FROM rate_limit_buckets WHERE bucket_key = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO rate_limit_buckets (bucket_key, tokens, refilled_at_ms) " +
+            "VALUES (?, ?, CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000 AS BIGINT)) " +
+            "ON CONFLICT (bucket_key) DO NOTHING";
+
+    private static final String COMPARE_AND_SWAP_SQL =
+            "UPDATE rate_limit_buckets SET tokens = ?, refilled_at_ms = ?, version = version + 1, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE bucket_key = ? AND version = ?";
+
+    private static final String ADJUST_SQL =
+            "UPDATE rate_limit_buckets SET tokens = LEAST(tokens + ?, ?), version = version + 1, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE bucket_key = ?";
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final RateLimiter fallback;
+    private final long capacity;
+    private final long refillPeriodMillis;
+    private final long leaseSize;
+    private final long leaseTtlNanos;
+    private final Duration idleExpiry;
+    private final Ticker ticker;
+    private final Cache<String, Lease> leases;
+
+    public PostgresRateLimiter(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, RateLimiter fallback,
+                               long capacity, Duration refillPeriod, long leaseSize, Duration leaseTtl,
+                               long maxKeys, Duration idleExpiry) {
+        this(jdbcTemplate, shardRouter, fallback, capacity, refillPeriod, leaseSize, leaseTtl, maxKeys, idleExpiry,
+                Ticker.systemTicker());
+    }
+
+    PostgresRateLimiter(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, RateLimiter fallback,
+                        long capacity, Duration refillPeriod, long leaseSize, Duration leaseTtl,
+                        long maxKeys, Duration idleExpiry, Ticker ticker) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.fallback = fallback;
+        this.capacity = capacity;
+        this.refillPeriodMillis = refillPeriod.toMillis();
+        this.leaseSize = Math.max(1, Math.min(leaseSize, capacity));
+        this.leaseTtlNanos = leaseTtl.toNanos();
+        this.idleExpiry = idleExpiry;
+        this.ticker = ticker;
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(leaseTtl.multipliedBy(2))
+                .ticker(ticker)
+                .removalListener((String key, Lease lease, RemovalCause cause) -> {
+                    if (key != null && lease != null && cause.wasEvicted()) {
+                        giveBack(key, lease);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Result tryConsume(String key, long tokens) {
+        Lease lease = leases.get(key, k -> new Lease(ticker.read()));
+        // A lock rather than synchronized: the borrow below does I/O and must not pin a virtual thread
+        lease.lock.lock();
+        try {
+            long now = ticker.read();
+            boolean valid = lease.expiresAt - now > 0;
+            long leased = valid ? lease.tokens : 0;
+            if (leased >= tokens) {
+                lease.tokens -= tokens;
+                return new Result(true, lease.tokens, Duration.ZERO);
+            }
+
+            // The leftover of an expired lease goes back to the shared bucket in the same round trip
+            long expired = valid ? 0 : lease.tokens;
+            long needed = tokens - leased;
+            Borrowed borrowed;
+            try {
+                borrowed = shardRouter.callOnShard(ShardRouter.PRIMARY_SHARD,
+                        () -> borrow(key, Math.max(needed, leaseSize), needed, expired));
+            } catch (DataAccessException e) {
+                log.warn("Shared rate limit unavailable, limiting {} locally: {}", key, e.getMessage());
+                return fallback.tryConsume(key, tokens);
+            }
+            if (borrowed.gaveBack) {
+                lease.tokens = leased;
+            }
+            if (borrowed.granted < needed) {
+                return new Result(false, leased + borrowed.remaining, borrowed.retryAfter);
+            }
+            lease.tokens = leased + borrowed.granted - tokens;
+            lease.expiresAt = now + leaseTtlNanos;
+            return new Result(true, lease.tokens + borrowed.remaining, Duration.ZERO);
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    /**
+     * Settles from the local lease first; whatever it cannot cover is taken from the shared bucket,
+     * which may go negative.
+     */
+    @Override
+    public void charge(String key, long tokens) {
+        Lease lease = leases.get(key, k -> new Lease(ticker.read()));
+        long delta;
+        lease.lock.lock();
+        try {
+            boolean valid = lease.expiresAt - ticker.read() > 0;
+            long leased = valid ? lease.tokens : 0;
+            long covered = Math.min(leased, tokens);
+            // An expired lease's leftover offsets what the lease cannot cover
+            delta = (valid ? 0 : lease.tokens) - (tokens - covered);
+            lease.tokens = leased - covered;
+        } finally {
+            lease.lock.unlock();
+        }
+        if (delta != 0) {
+            adjustShared(key, delta);
+        }
+    }
+
+    /**
+     * Returns tokens to the local lease while it is valid, otherwise to the shared bucket.
+     */
+    @Override
+    public void refund(String key, long tokens) {
+        Lease lease = leases.getIfPresent(key);
+        long delta = tokens;
+        if (lease != null) {
+            lease.lock.lock();
+            try {
+                if (lease.expiresAt - ticker.read() > 0) {
+                    lease.tokens += tokens;
+                    return;
+                }
+                delta += lease.tokens;
+                lease.tokens = 0;
+            } finally {
+                lease.lock.unlock();
+            }
+        }
+        adjustShared(key, delta);
+    }
+
+    /**
+     * Returns the unused tokens of a lease that is being dropped to the shared bucket.
+     */
+    private void giveBack(String key, Lease lease) {
+        long leftover;
+        lease.lock.lock();
+        try {
+            leftover = lease.tokens;
+            lease.tokens = 0;
+        } finally {
+            lease.lock.unlock();
+        }
+        if (leftover > 0) {
+            adjustShared(key, leftover);
+        }
+    }
+
+    private void adjustShared(String key, long delta) {
+        try {
+            shardRouter.runOnShard(ShardRouter.PRIMARY_SHARD,
+                    () -> jdbcTemplate.update(ADJUST_SQL, delta, capacity, key));
+        } catch (DataAccessException e) {
+            log.warn("Shared rate limit unavailable, adjusting {} locally: {}", key, e.getMessage());
+            if (delta < 0) {
+                fallback.charge(key, -delta);
+            } else {
+                fallback.refund(key, delta);
+            }
+        }
+    }
+
+    /**
+     * Removes buckets that have not been used for the idle expiry; they would be full again anyway.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.postgres.purge-interval-ms:300000}")
+    public void purgeIdleBuckets() {
+        try {
+            int purged = shardRouter.callOnShard(ShardRouter.PRIMARY_SHARD, () -> jdbcTemplate.update(
+                    "DELETE FROM rate_limit_buckets WHERE updated_at < CURRENT_TIMESTAMP - CAST(? AS INTERVAL)",
+                    idleExpiry.toSeconds() + " seconds"));
+            if (purged > 0) {
+                log.debug("Purged {} idle rate limit bucket(s)", purged);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not purge idle rate limit buckets: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gives back {@code returned} tokens, then takes up to {@code wanted} tokens from the shared bucket,
+     * but only if at least {@code needed} are available.
+     */
+    private Borrowed borrow(String key, long wanted, long needed, long returned) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            List<long[]> rows = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new long[]{
+                    rs.getLong("tokens"), rs.getLong("refilled_at_ms"), rs.getLong("version"), rs.getLong("now_ms")}, key);
+            if (rows.isEmpty()) {
+                jdbcTemplate.update(INSERT_SQL, key, capacity);
+                continue;
+            }
+            long[] row = rows.get(0);
+            long storedTokens = row[0];
+            long refilledAt = row[1];
+            long version = row[2];
+            long nowMillis = row[3];
+
+            // Intervally refill: capacity tokens per whole elapsed period; refilled_at_ms stays on the period grid
+            long periods = Math.max(0, nowMillis - refilledAt) / refillPeriodMillis;
+            long newRefilledAt = refilledAt + periods * refillPeriodMillis;
+            long refilled = periods > 0 ? Math.min(capacity, storedTokens + periods * capacity) : storedTokens;
+            long available = Math.min(capacity, refilled + returned);
+
+            long granted = available >= needed ? Math.min(wanted, available) : 0;
+            if (granted == 0 && returned == 0) {
+                return rejected(available, nowMillis, newRefilledAt, true);
+            }
+            int updated = jdbcTemplate.update(COMPARE_AND_SWAP_SQL, available - granted, newRefilledAt, key, version);
+            if (updated == 1) {
+                return granted > 0
+                        ? new Borrowed(granted, available - granted, Duration.ZERO, true)
+                        : rejected(available, nowMillis, newRefilledAt, true);
+            }
+            // Another instance changed the bucket since we read it; re-read and try again
+        }
+        log.debug("Rate limit bucket {} is heavily contended; rejecting this request", key);
+        return new Borrowed(0, 0, Duration.ofSeconds(1), false);
+    }
+
+    /**
+     * Nothing was granted; the next refill happens at the end of the current period.
+     */
+    private Borrowed rejected(long available, long nowMillis, long refilledAt, boolean gaveBack) {
+        long waitMillis = Math.max(1, refilledAt + refillPeriodMillis - nowMillis);
+        return new Borrowed(0, available, Duration.ofMillis(waitMillis), gaveBack);
+    }
+
+    /**
+     * @param gaveBack Whether the returned tokens reached the shared bucket (false if every attempt conflicted)
+     */
+    private record Borrowed(long granted, long remaining, Duration retryAfter, boolean gaveBack) {
+    }
+
+    private static final class Lease {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long tokens;
+        private long expiresAt;
+
+        private Lease(long now) {
+            this.expiresAt = now;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.paymentservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How many rate-limit tokens a request costs. Every request costs baseTokens plus plaidCallTokens
+ * per Plaid call. Up front the interceptor charges the endpoint's expected Plaid calls (first matching
+ * profile, none if no profile matches) and settles the difference once the real count is known.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit.cost")
+public class RateLimitCostProperties {
+
+    private long baseTokens = 1;
+
+    private long plaidCallTokens = 1;
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    @Data
+    public static class Endpoint {
+
+        /**
+         * Ant-style path pattern, e.g. /api/user/accounts/**.
+         */
+        private String pattern;
+
+        /**
+         * HTTP method to match; null matches any.
+         */
+        private String method;
+
+        /**
+         * Plaid calls the endpoint typically makes, charged before the request runs.
+         */
+        private int expectedPlaidCalls;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.paymentservice.config;
+
+import java.time.Duration;
+
+/**
+ * Token-bucket rate limiter keyed by client (authenticated user or IP address).
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes tokens from the key's bucket if it holds enough.
+     *
+     * @param key Client key, e.g. "user:auth0|123" or "ip:203.0.113.7"
+     * @param tokens Tokens the request costs
+     * @return Whether the request may proceed, with what is left and when to retry
+     */
+    Result tryConsume(String key, long tokens);
+
+    /**
+     * Takes tokens for work that has already happened, even if that leaves the bucket in debt.
+     * Used to settle a request that turned out to cost more than was charged up front.
+     */
+    void charge(String key, long tokens);
+
+    /**
+     * Returns tokens that were charged up front but not used, never beyond the bucket's capacity.
+     */
+    void refund(String key, long tokens);
+
+    /**
+     * @param allowed Whether the tokens were taken
+     * @param remainingTokens Tokens left in the bucket afterwards
+     * @param retryAfter How long until enough tokens are available again; zero when allowed
+     */
+    record Result(boolean allowed, long remainingTokens, Duration retryAfter) {
+    }
+}
@@ -1,34 +1,52 @@
 package com.example.paymentservice.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.Duration;
 
 /**
  * Rate limiting configuration using Bucket4j.
- * Limits API requests to prevent abuse and DoS attacks.
+ * Limits API requests per client to prevent abuse and DoS attacks: each authenticated user,
+ * or each IP address for anonymous requests, gets its own bucket (see RateLimitingInterceptor).
+ * <p>
+ * In 'local' mode (the default) every instance enforces the limit on its own, so N instances
+ * allow N times the limit. In 'postgres' mode the buckets are shared through the database.
  */
+@Slf4j
 @Configuration
 public class RateLimitingConfig {
 
     /**
-     * Creates a rate limiting bucket.
-     * Configuration:
-     * - 100 requests per minute per IP
+     * Creates the per-client rate limiter.
+     * Default configuration:
+     * - 100 requests per minute per user or IP
      * - Refills at 100 tokens per minute
-     * 
-     * Adjust these values based on your needs.
+     * - At most 100,000 tracked clients, forgotten after 10 minutes without requests
+     * - In postgres mode, each instance borrows 10 tokens per database round trip, kept for at most 1 second
      */
     @Bean
-    public Bucket rateLimitBucket() {
-        Bandwidth limit = Bandwidth.classic(100, Refill.intervally(100, Duration.ofMinutes(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    public RateLimiter rateLimiter(@Value("${app.rate-limit.mode:local}") String mode,
+                                   @Value("${app.rate-limit.capacity:100}") long capacity,
+                                   @Value("${app.rate-limit.refill-period:1m}") Duration refillPeriod,
+                                   @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+                                   @Value("${app.rate-limit.idle-expiry:10m}") Duration idleExpiry,
+                                   @Value("${app.rate-limit.postgres.lease-size:10}") long leaseSize,
+                                   @Value("${app.rate-limit.postgres.lease-ttl:1s}") Duration leaseTtl,
+                                   JdbcTemplate jdbcTemplate,
+                                   ShardRouter shardRouter) {
+        LocalRateLimiter local = new LocalRateLimiter(capacity, refillPeriod, maxKeys, idleExpiry);
+        if ("postgres".equalsIgnoreCase(mode)) {
+            log.info("Rate limiting is shared through PostgreSQL (lease size {}, lease TTL {})", leaseSize, leaseTtl);
+            return new PostgresRateLimiter(jdbcTemplate, shardRouter, local,
+                    capacity, refillPeriod, leaseSize, leaseTtl, maxKeys, idleExpiry);
+        }
+        if (!"local".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("Unknown app.rate-limit.mode '" + mode + "' (expected local or postgres)");
+        }
+        return local;
     }
 }
-
@@ -1,23 +1,42 @@
 package com.example.paymentservice.config;
 
-import io.github.bucket4j.Bucket;
+import com.example.paymentservice.service.Auth0Service;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 /**
  * Interceptor to enforce rate limiting on API requests.
+ * Requests with a valid Bearer token are limited per Auth0 user, everything else per client IP.
+ * The token is verified here (an unverified subject could be spoofed to drain another user's bucket);
+ * Auth0Service remembers the result, so the controller does not verify it again.
+ * Tokens sent in the request body are not visible here, so those requests are limited by IP.
+ * The client IP is the remote address as resolved by server.forward-headers-strategy: Tomcat takes the
+ * right-most X-Forwarded-For entry not appended by a trusted proxy, so a client cannot pick its own key.
+ * <p>
+ * Requests are charged by expected backend work (see RateLimitCostProperties): an endpoint that fans
+ * out to Plaid per linked item costs more than a health check. Once the request completes, the
+ * difference between the expected and the actual number of Plaid calls is charged or refunded.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RateLimitingInterceptor implements HandlerInterceptor {
 
-    private final Bucket rateLimitBucket;
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String KEY_ATTRIBUTE = RateLimitingInterceptor.class.getName() + ".key";
+    private static final String CHARGED_ATTRIBUTE = RateLimitingInterceptor.class.getName() + ".charged";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final RateLimiter rateLimiter;
+    private final Auth0Service auth0Service;
+    private final RateLimitCostProperties costProperties;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
@@ -26,15 +45,23 @@ public class RateLimitingInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        // Try to consume a token from the bucket
-        if (rateLimitBucket.tryConsume(1)) {
+        // Try to consume the endpoint's expected cost from the client's bucket
+        String key = rateLimitKey(request);
+        long cost = expectedCost(request);
+        RateLimiter.Result result = rateLimiter.tryConsume(key, cost);
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(result.remainingTokens()));
+        if (result.allowed()) {
+            request.setAttribute(KEY_ATTRIBUTE, key);
+            request.setAttribute(CHARGED_ATTRIBUTE, cost);
+            PlaidCallCounter.start(request);
             return true;
         }
 
         // Rate limit exceeded
-        log.warn("Rate limit exceeded for request: {} from IP: {}", 
-                request.getRequestURI(), getClientIpAddress(request));
+        log.warn("Rate limit exceeded for request: {} from client: {}", request.getRequestURI(), key);
+        long retryAfterSeconds = Math.max(1, (result.retryAfter().toMillis() + 999) / 1000);
         response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
         response.setContentType("application/json");
         try {
             response.getWriter().write("{\"error\":\"Rate limit exceeded\",\"message\":\"Too many requests. Please try again later.\"}");
@@ -44,16 +71,54 @@ public class RateLimitingInterceptor implements HandlerInterceptor {
         return false;
     }
 
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+    /**
+     * Settles the request: charges the Plaid calls made beyond the expected ones, or refunds the ones not made.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(KEY_ATTRIBUTE) instanceof String key)
+                || !(request.getAttribute(CHARGED_ATTRIBUTE) instanceof Long charged)) {
+            return;
         }
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+        int plaidCalls = PlaidCallCounter.count(request);
+        long actual = costProperties.getBaseTokens() + plaidCalls * costProperties.getPlaidCallTokens();
+        if (actual > charged) {
+            log.debug("Request {} made {} Plaid call(s); charging {} more token(s) to {}",
+                    request.getRequestURI(), plaidCalls, actual - charged, key);
+            rateLimiter.charge(key, actual - charged);
+        } else if (actual < charged) {
+            rateLimiter.refund(key, charged - actual);
         }
-        return request.getRemoteAddr();
     }
-}
 
+    /**
+     * @return Base cost plus the expected Plaid calls of the first matching endpoint profile
+     */
+    private long expectedCost(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        for (RateLimitCostProperties.Endpoint endpoint : costProperties.getEndpoints()) {
+            if ((endpoint.getMethod() == null || endpoint.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && PATH_MATCHER.match(endpoint.getPattern(), path)) {
+                return costProperties.getBaseTokens()
+                        + endpoint.getExpectedPlaidCalls() * costProperties.getPlaidCallTokens();
+            }
+        }
+        return costProperties.getBaseTokens();
+    }
+
+    /**
+     * @return "user:" + Auth0 user ID for a valid Bearer token, otherwise "ip:" + client IP
+     */
+    private String rateLimitKey(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            try {
+                return "user:" + auth0Service.validateTokenAndExtractUserId(authHeader.substring(BEARER_PREFIX.length()));
+            } catch (IllegalArgumentException e) {
+                // Invalid token: the controller rejects it, the request still counts against the IP
+                log.debug("Rate limiting request with invalid token by IP: {}", e.getMessage());
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.service.CurrentUserContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to the read replica and everything else to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the routing decision is made after the
+ * transaction's read-only flag has been bound, not when the transaction manager opens it.
+ * <p>
+ * A read stays on the primary when the replica is lagging or unreachable, or when the current
+ * user committed a write within the read-your-writes window.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private static final Object WRITE_TRACKED = new Object();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final RecentWriteTracker recentWriteTracker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaLagMonitor lagMonitor,
+                                      RecentWriteTracker recentWriteTracker) {
+        this.lagMonitor = lagMonitor;
+        this.recentWriteTracker = recentWriteTracker;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, lagMonitor.getReplicaDataSource()));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String auth0UserId = CurrentUserContext.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite(auth0UserId);
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable() || recentWriteTracker.hasRecentWrite(auth0UserId)) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    /**
+     * Opens the user's read-your-writes window once the read-write transaction commits.
+     */
+    private void trackWrite(String auth0UserId) {
+        if (auth0UserId == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriteTracker.recordWrite(auth0UserId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.paymentservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users committed a write recently, so their reads can be kept on the primary
+ * until the replica has had time to catch up (read-your-writes).
+ */
+@Slf4j
+@Component
+public class RecentWriteTracker {
+
+    private final Map<String, Long> writeWindowEnds = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public RecentWriteTracker(@Value("${app.datasource.replica.read-your-writes-window:10s}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Records that a user just committed a write.
+     *
+     * @param auth0UserId The Auth0 user ID
+     */
+    public void recordWrite(String auth0UserId) {
+        writeWindowEnds.put(auth0UserId, System.nanoTime() + windowNanos);
+    }
+
+    /**
+     * @param auth0UserId The Auth0 user ID, may be null
+     * @return Whether the user committed a write within the read-your-writes window
+     */
+    public boolean hasRecentWrite(String auth0UserId) {
+        if (auth0UserId == null) {
+            return false;
+        }
+        Long windowEnd = writeWindowEnds.get(auth0UserId);
+        if (windowEnd == null) {
+            return false;
+        }
+        if (System.nanoTime() - windowEnd >= 0) {
+            writeWindowEnds.remove(auth0UserId, windowEnd);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops expired entries of users that did not read again.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.read-your-writes-purge-ms:60000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        writeWindowEnds.entrySet().removeIf(entry -> now - entry.getValue() >= 0);
+    }
+}
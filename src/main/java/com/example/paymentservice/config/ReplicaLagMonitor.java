@@ -0,0 +1,86 @@
+package com.example.paymentservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Periodically measures replication lag on the read replica.
+ * The replica is only considered usable after a successful check that found the lag within bounds;
+ * failed checks and excessive lag route all reads back to the primary until the next good check.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements Closeable {
+
+    // Zero when the replica has replayed everything it received, so an idle primary does not look like lag
+    private static final String LAG_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "            WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "            ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource replicaDataSource;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private volatile boolean replicaUsable;
+
+    /**
+     * @param replicaDataSource Replica pool, or null when no replica is configured
+     * @param maxLag Largest acceptable replication lag
+     */
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag) {
+        this.replicaDataSource = replicaDataSource;
+        this.replicaJdbcTemplate = replicaDataSource != null ? new JdbcTemplate(replicaDataSource) : null;
+        this.maxLag = maxLag;
+    }
+
+    public DataSource getReplicaDataSource() {
+        return replicaDataSource;
+    }
+
+    public boolean isReplicaConfigured() {
+        return replicaDataSource != null;
+    }
+
+    /**
+     * @return Whether read-only transactions may currently use the replica
+     */
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        if (replicaJdbcTemplate == null) {
+            return;
+        }
+        boolean usable;
+        try {
+            Double lagSeconds = replicaJdbcTemplate.queryForObject(LAG_SQL, Double.class);
+            usable = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+            if (!usable && replicaUsable) {
+                log.warn("Replica lag {}s exceeds {}; routing reads to primary", lagSeconds, maxLag);
+            }
+        } catch (Exception e) {
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica lag check failed; routing reads to primary: {}", e.getMessage());
+            }
+        }
+        if (usable && !replicaUsable) {
+            log.info("Replica within lag bounds; routing read-only transactions to replica");
+        }
+        replicaUsable = usable;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (replicaDataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.service.CurrentUserContext;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Carries the submitting thread's request context into async tasks: the current user, which
+ * shard routing reads, and the request attributes, which PlaidCallCounter reads.
+ * Tasks that run on the submitting thread itself are left alone so its context is not cleared.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Thread submitter = Thread.currentThread();
+        String auth0UserId = CurrentUserContext.get();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return () -> {
+            if (Thread.currentThread() == submitter) {
+                runnable.run();
+                return;
+            }
+            CurrentUserContext.set(auth0UserId);
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                runnable.run();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                CurrentUserContext.clear();
+            }
+        };
+    }
+}
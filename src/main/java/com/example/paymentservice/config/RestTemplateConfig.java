@@ -5,9 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.List;
 
 @Slf4j
@@ -16,9 +18,13 @@ public class RestTemplateConfig {
 
     @Bean
     public RestTemplate restTemplate(ObjectMapper objectMapper) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(30000);
-        factory.setReadTimeout(30000);
+        // java.net.http client: pooled connections and no monitor-guarded blocking I/O,
+        // so Plaid calls on virtual threads do not pin their carrier thread
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofSeconds(30));
         
         RestTemplate restTemplate = new RestTemplate(factory);
         
@@ -39,7 +45,13 @@ public class RestTemplateConfig {
             return response;
         };
         
-        restTemplate.setInterceptors(List.of(loggingInterceptor));
+        // Count Plaid calls against the current request for cost-based rate limiting
+        ClientHttpRequestInterceptor plaidCallCounter = (request, body, execution) -> {
+            PlaidCallCounter.record();
+            return execution.execute(request, body);
+        };
+        
+        restTemplate.setInterceptors(List.of(loggingInterceptor, plaidCallCounter));
         return restTemplate;
     }
 }
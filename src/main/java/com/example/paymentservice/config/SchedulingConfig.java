@@ -0,0 +1,12 @@
+package com.example.paymentservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance jobs (partition management and similar housekeeping).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
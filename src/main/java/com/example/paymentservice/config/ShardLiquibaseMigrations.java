@@ -0,0 +1,62 @@
+package com.example.paymentservice.config;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Applies the Liquibase changelog to every extra shard at startup.
+ * Spring Boot's own Liquibase run only sees the primary shard, because no shard is pinned and no
+ * user is authenticated at that point; the remaining shards are migrated here with their shard pinned.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardLiquibaseMigrations implements InitializingBean {
+
+    private final ShardRouter shardRouter;
+    private final DataSource dataSource;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${spring.liquibase.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.liquibase.change-log:classpath:db/changelog/db.changelog-master.yaml}")
+    private String changeLog;
+
+    @Value("${spring.liquibase.contexts:}")
+    private String contexts;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled || !shardRouter.isSharded()) {
+            return;
+        }
+        for (String shard : shardRouter.shardNames()) {
+            if (!ShardRouter.PRIMARY_SHARD.equals(shard)) {
+                shardRouter.runOnShard(shard, () -> migrate(shard));
+            }
+        }
+    }
+
+    private void migrate(String shard) {
+        log.info("Applying Liquibase changelog to shard {}", shard);
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(changeLog);
+        liquibase.setContexts(contexts);
+        liquibase.setResourceLoader(resourceLoader);
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (LiquibaseException e) {
+            throw new IllegalStateException("Liquibase migration failed on shard " + shard, e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.paymentservice.config;
+
+import com.example.paymentservice.service.CurrentUserContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard the current thread's database work belongs to.
+ * Inside an authenticated request that is the shard owning the current user (see CurrentUserContext);
+ * background jobs pin a shard explicitly with {@link #forEachShard(Consumer)} or
+ * {@link #callOnShard(String, Supplier)}; anything else goes to the primary.
+ * Without configured shards every method degrades to the single primary database.
+ * <p>
+ * Pinning only affects connections opened afterwards, so never switch shards inside a transaction.
+ */
+@Slf4j
+@Component
+public class ShardRouter {
+
+    public static final String PRIMARY_SHARD = "primary";
+
+    private static final ThreadLocal<String> PINNED_SHARD = new ThreadLocal<>();
+
+    private final List<String> shardNames;
+    private final ConsistentHashRing ring;
+
+    public ShardRouter(ShardingProperties properties) {
+        List<String> names = new ArrayList<>();
+        names.add(PRIMARY_SHARD);
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            if (shard.getName() == null || shard.getName().isBlank()) {
+                throw new IllegalStateException("Every entry in app.datasource.sharding.shards needs a name");
+            }
+            names.add(shard.getName());
+        }
+        this.shardNames = List.copyOf(names);
+        this.ring = names.size() > 1 ? new ConsistentHashRing(names, properties.getVirtualNodes()) : null;
+    }
+
+    public boolean isSharded() {
+        return ring != null;
+    }
+
+    /**
+     * @return All shard names, the primary first
+     */
+    public List<String> shardNames() {
+        return shardNames;
+    }
+
+    /**
+     * @param auth0UserId The Auth0 user ID
+     * @return Name of the shard that owns the user
+     */
+    public String shardFor(String auth0UserId) {
+        return ring != null ? ring.nodeFor(auth0UserId) : PRIMARY_SHARD;
+    }
+
+    /**
+     * @return Shard for connections opened now on this thread
+     */
+    public String currentShard() {
+        if (ring == null) {
+            return PRIMARY_SHARD;
+        }
+        String pinned = PINNED_SHARD.get();
+        if (pinned != null) {
+            return pinned;
+        }
+        String auth0UserId = CurrentUserContext.get();
+        return auth0UserId != null ? ring.nodeFor(auth0UserId) : PRIMARY_SHARD;
+    }
+
+    /**
+     * Runs an action with the given shard pinned on the current thread.
+     *
+     * @param shard Shard name
+     * @param action Work to run; must open its own transaction if it needs one
+     * @return The action's result
+     */
+    public <T> T callOnShard(String shard, Supplier<T> action) {
+        if (!shardNames.contains(shard)) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        String previous = PINNED_SHARD.get();
+        PINNED_SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                PINNED_SHARD.set(previous);
+            } else {
+                PINNED_SHARD.remove();
+            }
+        }
+    }
+
+    public void runOnShard(String shard, Runnable action) {
+        callOnShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a maintenance action once per shard, each with that shard pinned.
+     * A failure on one shard is logged and does not stop the others.
+     *
+     * @param action Work to run, given the shard name
+     */
+    public void forEachShard(Consumer<String> action) {
+        for (String shard : shardNames) {
+            try {
+                runOnShard(shard, () -> action.accept(shard));
+            } catch (RuntimeException e) {
+                if (shardNames.size() == 1) {
+                    throw e;
+                }
+                log.error("Maintenance failed on shard {}", shard, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.paymentservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routes each connection to the shard chosen by {@link ShardRouter}: the shard owning the current
+ * user, a shard pinned by a maintenance job, or the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy, like ReadWriteRoutingDataSource, so the
+ * decision is made when the first statement runs.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingDataSource(Map<String, DataSource> shards, ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+        setTargetDataSources(new HashMap<Object, Object>(shards));
+        // A user must never silently land on the wrong database
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return shardRouter.currentShard();
+    }
+}
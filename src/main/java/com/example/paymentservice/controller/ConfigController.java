@@ -4,11 +4,14 @@ import com.example.paymentservice.dto.ConfigResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+
 /**
  * Controller to provide public configuration to frontend.
  * This endpoint returns only public configuration - no secrets.
@@ -49,6 +52,10 @@ public class ConfigController {
     @Value("${app.ui.theme.primary-color:#667eea}")
     private String primaryColor;
 
+    // Config only changes with a redeploy, so browsers and CDNs may keep it
+    @Value("${app.config.cache-max-age:1h}")
+    private Duration cacheMaxAge;
+
     @GetMapping
     public ResponseEntity<ConfigResponse> getConfig() {
         log.debug("Providing configuration to frontend");
@@ -77,7 +84,9 @@ public class ConfigController {
                         .build())
                 .build();
         
-        return ResponseEntity.ok(config);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(cacheMaxAge).cachePublic())
+                .body(config);
     }
 }
 
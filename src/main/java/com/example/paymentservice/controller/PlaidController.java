@@ -45,8 +45,8 @@ public class PlaidController {
             // Step 1: Validate Auth0 token and get/create user
             String userId;
             try {
-                userService.getOrCreateUserFromToken(request.getAuth0AccessToken());
                 userId = auth0Service.validateTokenAndExtractUserId(request.getAuth0AccessToken());
+                userService.getOrCreateUser(userId);
                 log.info("Successfully validated Auth0 token for user: {}", userId);
             } catch (IllegalArgumentException e) {
                 log.error("Invalid Auth0 token: {}", e.getMessage());
@@ -1,5 +1,6 @@
 package com.example.paymentservice.controller;
 
+import com.example.paymentservice.dto.UserAccountsResponse;
 import com.example.paymentservice.dto.plaid.AccountsGetResponse;
 import com.example.paymentservice.service.Auth0Service;
 import com.example.paymentservice.service.PlaidService;
@@ -62,8 +63,8 @@ public class UserAccountsController {
             // Step 1: Validate Auth0 token and get/create user
             String userId;
             try {
-                userService.getOrCreateUserFromToken(auth0Token);
                 userId = auth0Service.validateTokenAndExtractUserId(auth0Token);
+                userService.getOrCreateUser(userId);
                 log.info("Successfully validated Auth0 token for user: {}", userId);
             } catch (IllegalArgumentException e) {
                 log.error("Invalid Auth0 token: {}", e.getMessage());
@@ -76,10 +77,7 @@ public class UserAccountsController {
             
             if (plaidTokens.isEmpty()) {
                 log.info("No Plaid tokens found for user: {}. Returning empty accounts list.", userId);
-                Map<String, Object> response = new HashMap<>();
-                response.put("accounts", new ArrayList<>());
-                response.put("items", new ArrayList<>());
-                return ResponseEntity.ok(response);
+                return ResponseEntity.ok(UserAccountsResponse.empty());
             }
             
             log.info("Found {} Plaid token(s) for user: {}", plaidTokens.size(), userId);
@@ -128,91 +126,10 @@ public class UserAccountsController {
                 }
             }
             
-            // Step 4: Aggregate all accounts
-            List<Map<String, Object>> allAccounts = new ArrayList<>();
-            List<Map<String, Object>> items = new ArrayList<>();
+            // Step 4: Aggregate all accounts (logo priority: accounts response, transactions response, institution_id)
+            UserAccountsResponse response = UserAccountsResponse.from(allAccountsResponses, itemLogoUrlMap);
             
-            for (AccountsGetResponse response : allAccountsResponses) {
-                if (response.getAccounts() != null) {
-                    for (AccountsGetResponse.Account account : response.getAccounts()) {
-                        Map<String, Object> accountMap = new HashMap<>();
-                        accountMap.put("account_id", account.getAccountId());
-                        accountMap.put("name", account.getName());
-                        accountMap.put("type", account.getType());
-                        accountMap.put("subtype", account.getSubtype());
-                        accountMap.put("mask", account.getMask());
-                        if (account.getBalances() != null) {
-                            Map<String, Object> balances = new HashMap<>();
-                            balances.put("available", account.getBalances().getAvailable());
-                            balances.put("current", account.getBalances().getCurrent());
-                            balances.put("limit", account.getBalances().getLimit());
-                            balances.put("iso_currency_code", account.getBalances().getIsoCurrencyCode());
-                            accountMap.put("balances", balances);
-                        }
-                        // Add institution info from item
-                        if (response.getItem() != null) {
-                            accountMap.put("institution_id", response.getItem().getInstitutionId());
-                            String itemId = response.getItem().getItemId();
-                            accountMap.put("item_id", itemId);
-                            
-                            // Get logo_url: priority 1) from accounts response, 2) from transactions response (stored in map), 3) construct from institution_id
-                            String logoUrl = null;
-                            if (response.getItem().getLogoUrl() != null && !response.getItem().getLogoUrl().isEmpty()) {
-                                logoUrl = response.getItem().getLogoUrl();
-                            } else if (itemId != null && itemLogoUrlMap.containsKey(itemId)) {
-                                logoUrl = itemLogoUrlMap.get(itemId);
-                            } else if (response.getItem().getInstitutionId() != null) {
-                                // Fallback: construct URL from institution_id
-                                logoUrl = "https://cdn.plaid.com/institutions/logos/" + response.getItem().getInstitutionId() + ".png";
-                            }
-                            
-                            // Always set institution_icon_url if we have institution_id (at minimum, use constructed URL)
-                            if (logoUrl != null) {
-                                accountMap.put("institution_icon_url", logoUrl);
-                                log.debug("Set institution_icon_url for account {} (item {}): {}", account.getAccountId(), itemId, logoUrl);
-                            } else if (response.getItem().getInstitutionId() != null) {
-                                // Final fallback - ensure we always have an icon URL
-                                logoUrl = "https://cdn.plaid.com/institutions/logos/" + response.getItem().getInstitutionId() + ".png";
-                                accountMap.put("institution_icon_url", logoUrl);
-                                log.debug("Using fallback institution_icon_url for account {} (item {}): {}", account.getAccountId(), itemId, logoUrl);
-                            }
-                        }
-                        allAccounts.add(accountMap);
-                    }
-                }
-                
-                // Collect item information
-                if (response.getItem() != null) {
-                    Map<String, Object> itemMap = new HashMap<>();
-                    String itemId = response.getItem().getItemId();
-                    itemMap.put("item_id", itemId);
-                    itemMap.put("institution_id", response.getItem().getInstitutionId());
-                    
-                    // Get logo_url: priority 1) from accounts response, 2) from transactions response (stored in map), 3) construct from institution_id
-                    String logoUrl = null;
-                    if (response.getItem().getLogoUrl() != null && !response.getItem().getLogoUrl().isEmpty()) {
-                        logoUrl = response.getItem().getLogoUrl();
-                    } else if (itemId != null && itemLogoUrlMap.containsKey(itemId)) {
-                        logoUrl = itemLogoUrlMap.get(itemId);
-                    } else if (response.getItem().getInstitutionId() != null) {
-                        // Fallback: construct URL from institution_id
-                        logoUrl = "https://cdn.plaid.com/institutions/logos/" + response.getItem().getInstitutionId() + ".png";
-                    }
-                    
-                    if (logoUrl != null) {
-                        itemMap.put("institution_icon_url", logoUrl);
-                    }
-                    items.add(itemMap);
-                }
-            }
-            
-            // Step 5: Return aggregated accounts
-            Map<String, Object> response = new HashMap<>();
-            response.put("accounts", allAccounts);
-            response.put("items", items);
-            response.put("total_accounts", allAccounts.size());
-            
-            log.info("Successfully retrieved {} accounts for user: {}", allAccounts.size(), userId);
+            log.info("Successfully retrieved {} accounts for user: {}", response.totalAccounts(), userId);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
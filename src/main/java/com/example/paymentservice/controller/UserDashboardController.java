@@ -0,0 +1,109 @@
+package com.example.paymentservice.controller;
+
+import com.example.paymentservice.dto.UserDashboardResponse;
+import com.example.paymentservice.dto.UserTransactionsRequest;
+import com.example.paymentservice.service.Auth0Service;
+import com.example.paymentservice.service.UserDashboardService;
+import com.example.paymentservice.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller for the combined dashboard: accounts and transactions of all connected bank accounts
+ * in one response, replacing separate calls to /api/user/accounts and /api/user/transactions.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/user/dashboard")
+@RequiredArgsConstructor
+public class UserDashboardController {
+
+    private final Auth0Service auth0Service;
+    private final UserService userService;
+    private final UserDashboardService userDashboardService;
+
+    /**
+     * Gets accounts and transactions for the authenticated user.
+     *
+     * @param request Contains Auth0 access token and optional date range (default: last 30 days)
+     * @return Accounts, items and transactions across all connected items
+     */
+    @PostMapping
+    public ResponseEntity<?> getDashboard(@Valid @RequestBody UserTransactionsRequest request) {
+        return dashboard(request.getAuth0AccessToken(), request.getStartDate(), request.getEndDate());
+    }
+
+    /**
+     * Convenience GET endpoint with Auth0 token in header.
+     * Usage: GET /api/user/dashboard?startDate=2024-01-01&endDate=2024-01-31
+     * Header: Authorization: Bearer <auth0-token>
+     */
+    @GetMapping
+    public ResponseEntity<?> getDashboardByHeader(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(value = "startDate", required = false) String startDate,
+            @RequestParam(value = "endDate", required = false) String endDate) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Missing Auth0 token", "Auth0 access token is required"));
+        }
+        return dashboard(authHeader.substring(7), startDate, endDate);
+    }
+
+    private ResponseEntity<?> dashboard(String auth0Token, String startDateParam, String endDateParam) {
+        try {
+            // Step 1: Validate Auth0 token once and get/create user
+            String userId;
+            try {
+                userId = auth0Service.validateTokenAndExtractUserId(auth0Token);
+                userService.getOrCreateUser(userId);
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid Auth0 token: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(createErrorResponse("Invalid Auth0 token", e.getMessage()));
+            }
+
+            // Step 2: Determine date range
+            LocalDate startDate;
+            LocalDate endDate;
+            try {
+                startDate = startDateParam != null && !startDateParam.isEmpty()
+                        ? LocalDate.parse(startDateParam)
+                        : LocalDate.now().minusDays(30); // Default: last 30 days
+                endDate = endDateParam != null && !endDateParam.isEmpty()
+                        ? LocalDate.parse(endDateParam)
+                        : LocalDate.now(); // Default: today
+            } catch (DateTimeParseException e) {
+                return ResponseEntity.badRequest()
+                        .body(createErrorResponse("Invalid date", "Dates must be in yyyy-MM-dd format"));
+            }
+
+            // Step 3: Fetch accounts and transactions of all items in parallel
+            UserDashboardResponse response = userDashboardService.getDashboard(userId, startDate, endDate);
+            log.info("Retrieved dashboard with {} accounts and {} transactions for user: {}",
+                    response.totalAccounts(), response.totalTransactions(), userId);
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching user dashboard: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Internal Server Error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> createErrorResponse(String error, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", error);
+        response.put("message", message);
+        return response;
+    }
+}
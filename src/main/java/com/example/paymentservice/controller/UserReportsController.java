@@ -0,0 +1,149 @@
+package com.example.paymentservice.controller;
+
+import com.example.paymentservice.dto.SpendingDashboardResponse;
+import com.example.paymentservice.dto.SpendingReportResponse;
+import com.example.paymentservice.service.Auth0Service;
+import com.example.paymentservice.service.SpendingDashboardService;
+import com.example.paymentservice.service.SpendingReportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller to serve spending reports for the authenticated user.
+ * Reports are read from incrementally maintained rollups and are only
+ * available when app.features.enable-reports is on.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/user/reports")
+@RequiredArgsConstructor
+public class UserReportsController {
+
+    private final Auth0Service auth0Service;
+    private final SpendingReportService spendingReportService;
+    private final SpendingDashboardService spendingDashboardService;
+
+    @Value("${app.features.enable-reports:false}")
+    private Boolean enableReports;
+
+    /**
+     * Gets spending per category and month.
+     * Usage: GET /api/user/reports/spending?from=2024-01&to=2024-06&level=primary
+     * Header: Authorization: Bearer <auth0-token>
+     *
+     * @param from First month (yyyy-MM), defaults to five months before the current month
+     * @param to Last month (yyyy-MM), defaults to the current month
+     * @param level "primary" for top-level categories (default) or "detailed" for the most specific ones
+     * @return Spending report
+     */
+    @GetMapping("/spending")
+    public ResponseEntity<?> getSpendingReport(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            @RequestParam(value = "level", defaultValue = "primary") String level) {
+
+        if (!Boolean.TRUE.equals(enableReports)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse("Not Found", "Reports are not enabled"));
+        }
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Missing Auth0 token", "Auth0 access token is required"));
+        }
+
+        String userId;
+        try {
+            userId = auth0Service.validateTokenAndExtractUserId(authHeader.substring(7));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid Auth0 token: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Invalid Auth0 token", e.getMessage()));
+        }
+
+        YearMonth toMonth;
+        YearMonth fromMonth;
+        try {
+            toMonth = to != null && !to.isEmpty() ? YearMonth.parse(to) : YearMonth.now();
+            fromMonth = from != null && !from.isEmpty() ? YearMonth.parse(from) : toMonth.minusMonths(5);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Invalid month", "Months must use the yyyy-MM format"));
+        }
+        if (fromMonth.isAfter(toMonth)) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Invalid range", "'from' must not be after 'to'"));
+        }
+
+        if (!"primary".equals(level) && !"detailed".equals(level)) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Invalid level", "'level' must be 'primary' or 'detailed'"));
+        }
+
+        SpendingReportResponse report = spendingReportService.getSpendingReport(
+                userId, fromMonth, toMonth, "detailed".equals(level));
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Gets dashboard analytics (category totals, daily spend, running balance) for the last N days.
+     * Usage: GET /api/user/reports/dashboard?days=30
+     * Header: Authorization: Bearer <auth0-token>
+     *
+     * @param days Window length in days, ending today (1-366)
+     * @return Dashboard analytics
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<?> getDashboard(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(value = "days", defaultValue = "30") int days) {
+
+        if (!Boolean.TRUE.equals(enableReports)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse("Not Found", "Reports are not enabled"));
+        }
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Missing Auth0 token", "Auth0 access token is required"));
+        }
+
+        String userId;
+        try {
+            userId = auth0Service.validateTokenAndExtractUserId(authHeader.substring(7));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid Auth0 token: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Invalid Auth0 token", e.getMessage()));
+        }
+
+        if (days < 1 || days > 366) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Invalid range", "'days' must be between 1 and 366"));
+        }
+
+        LocalDate endDate = LocalDate.now();
+        SpendingDashboardResponse dashboard = spendingDashboardService.getDashboard(
+                userId, endDate.minusDays(days - 1L), endDate);
+        return ResponseEntity.ok(dashboard);
+    }
+
+    private Map<String, Object> createErrorResponse(String error, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", error);
+        response.put("message", message);
+        response.put("timestamp", LocalDate.now().toString());
+        return response;
+    }
+}
@@ -1,18 +1,28 @@
 package com.example.paymentservice.controller;
 
+import com.example.paymentservice.dto.FieldSelection;
+import com.example.paymentservice.dto.TransactionSearchResponse;
 import com.example.paymentservice.dto.UserTransactionsRequest;
 import com.example.paymentservice.dto.plaid.TransactionsGetResponse;
+import com.example.paymentservice.repository.projection.TransactionRow;
 import com.example.paymentservice.service.Auth0Service;
 import com.example.paymentservice.service.PlaidService;
+import com.example.paymentservice.service.TransactionHistoryService;
+import com.example.paymentservice.service.TransactionIngestionService;
+import com.example.paymentservice.service.TransactionSearchService;
 import com.example.paymentservice.service.UserPlaidTokenService;
 import com.example.paymentservice.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
@@ -37,6 +47,13 @@ public class UserTransactionsController {
     private final UserPlaidTokenService userPlaidTokenService;
     private final PlaidService plaidService;
     private final UserService userService;
+    private final TransactionIngestionService transactionIngestionService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final TransactionSearchService transactionSearchService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.features.enable-reports:false}")
+    private Boolean enableReports;
 
     /**
      * Fetches transactions for the authenticated user.
@@ -54,11 +71,9 @@ public class UserTransactionsController {
             // Step 1: Validate Auth0 token and get/create user
             String userId;
             try {
-                // This will create the user if it doesn't exist
-                userService.getOrCreateUserFromToken(request.getAuth0AccessToken());
-                
-                // Extract user ID for further operations
+                // Validate once, then create the user if it doesn't exist
                 userId = auth0Service.validateTokenAndExtractUserId(request.getAuth0AccessToken());
+                userService.getOrCreateUser(userId);
                 log.info("Successfully validated Auth0 token and ensured user exists: {}", userId);
             } catch (IllegalArgumentException e) {
                 log.error("Invalid Auth0 token: {}", e.getMessage());
@@ -66,6 +81,15 @@ public class UserTransactionsController {
                         .body(createErrorResponse("Invalid Auth0 token", e.getMessage()));
             }
             
+            // Optional sparse fieldset, e.g. fields=transactions.date,transactions.name,transactions.amount
+            FieldSelection fields;
+            try {
+                fields = FieldSelection.parse(request.getFields());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(createErrorResponse("Invalid fields", e.getMessage()));
+            }
+            
             // Step 2: Get Plaid access token for this user
             Optional<String> plaidTokenOpt = userPlaidTokenService.getPlaidAccessTokenForUser(userId);
             if (plaidTokenOpt.isEmpty()) {
@@ -73,7 +97,7 @@ public class UserTransactionsController {
                 // Return empty transactions list instead of error
                 TransactionsGetResponse emptyResponse = new TransactionsGetResponse();
                 emptyResponse.setTransactions(java.util.Collections.emptyList());
-                return ResponseEntity.ok(emptyResponse);
+                return selected(emptyResponse, fields);
             }
             
             String plaidAccessToken = plaidTokenOpt.get();
@@ -93,7 +117,9 @@ public class UserTransactionsController {
             // Step 4: Fetch transactions from Plaid
             TransactionsGetResponse transactionsResponse;
             try {
-                transactionsResponse = plaidService.getTransactions(plaidAccessToken, startDate, endDate);
+                // Ingestion needs whole transactions, so only skip fields while parsing when reports are off
+                FieldSelection parseFields = Boolean.TRUE.equals(enableReports) ? null : fields;
+                transactionsResponse = plaidService.getTransactions(plaidAccessToken, startDate, endDate, parseFields);
                 log.info("Successfully fetched {} transactions for user: {}", 
                         transactionsResponse.getTransactions() != null ? transactionsResponse.getTransactions().size() : 0, 
                         userId);
@@ -104,8 +130,18 @@ public class UserTransactionsController {
                                 "Failed to fetch transactions from Plaid: " + e.getMessage()));
             }
             
-            // Step 5: Return transactions
-            return ResponseEntity.ok(transactionsResponse);
+            // Step 5: Store transactions so reports stay current (only needed when reports are enabled)
+            if (Boolean.TRUE.equals(enableReports)) {
+                try {
+                    transactionIngestionService.ingestTransactions(userId, startDate, endDate, transactionsResponse);
+                } catch (Exception e) {
+                    // Reporting is best-effort; never fail the read because of it
+                    log.warn("Failed to ingest transactions for user {}: {}", userId, e.getMessage());
+                }
+            }
+            
+            // Step 6: Return transactions (only the selected fields, if any)
+            return selected(transactionsResponse, fields);
             
         } catch (Exception e) {
             log.error("Unexpected error while fetching user transactions: {}", e.getMessage(), e);
@@ -114,6 +150,109 @@ public class UserTransactionsController {
         }
     }
 
+    /**
+     * Convenience GET endpoint with Auth0 token in header; supports If-None-Match for polling clients.
+     * Usage: GET /api/user/transactions?startDate=2024-01-01&endDate=2024-01-31&fields=transactions.date,transactions.amount
+     * Header: Authorization: Bearer <auth0-token>
+     */
+    @GetMapping
+    public ResponseEntity<?> getUserTransactionsByHeader(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(value = "startDate", required = false) String startDate,
+            @RequestParam(value = "endDate", required = false) String endDate,
+            @RequestParam(value = "fields", required = false) String fields) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Missing Auth0 token", "Auth0 access token is required"));
+        }
+        return getUserTransactions(new UserTransactionsRequest(authHeader.substring(7), startDate, endDate, fields));
+    }
+
+    /**
+     * Gets stored transaction history, newest first.
+     * Usage: GET /api/user/transactions/history?page=0&size=100
+     * Header: Authorization: Bearer <auth0-token>
+     *
+     * @return A page of stored transactions
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getTransactionHistory(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Missing Auth0 token", "Auth0 access token is required"));
+        }
+
+        String userId;
+        try {
+            userId = auth0Service.validateTokenAndExtractUserId(authHeader.substring(7));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid Auth0 token: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Invalid Auth0 token", e.getMessage()));
+        }
+
+        Slice<TransactionRow> history = transactionHistoryService.getHistory(userId, page, size);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("transactions", history.getContent());
+        response.put("page", history.getNumber());
+        response.put("size", history.getSize());
+        response.put("has_next", history.hasNext());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Searches stored transactions by merchant and name, best match first.
+     * Usage: GET /api/user/transactions/search?q=starbucks&limit=20&cursor=<next_cursor>
+     * Header: Authorization: Bearer <auth0-token>
+     *
+     * @return Ranked search results and the cursor of the next page
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTransactions(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestParam("q") String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Missing Auth0 token", "Auth0 access token is required"));
+        }
+
+        String userId;
+        try {
+            userId = auth0Service.validateTokenAndExtractUserId(authHeader.substring(7));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid Auth0 token: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(createErrorResponse("Invalid Auth0 token", e.getMessage()));
+        }
+
+        try {
+            TransactionSearchResponse results = transactionSearchService.search(userId, query, cursor, limit);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(createErrorResponse("Invalid search request", e.getMessage()));
+        }
+    }
+
+    /**
+     * The response with only the selected fields; the whole response when there is no selection.
+     * Either way the body goes through content negotiation, so fields= works with CBOR and Smile too.
+     */
+    private ResponseEntity<?> selected(TransactionsGetResponse response, FieldSelection fields) throws IOException {
+        if (fields == null) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.ok(fields.select(objectMapper, response));
+    }
+
     private Map<String, Object> createErrorResponse(String error, String message) {
         Map<String, Object> response = new HashMap<>();
         response.put("error", error);
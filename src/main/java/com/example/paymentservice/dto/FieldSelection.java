@@ -0,0 +1,107 @@
+package com.example.paymentservice.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.FilteringGeneratorDelegate;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sparse fieldset parsed from a {@code fields=} request parameter, e.g.
+ * {@code fields=transactions.date,transactions.name,transactions.amount,total_transactions}.
+ * <p>
+ * Paths are dotted JSON property names from the response root; arrays are transparent, so
+ * {@code transactions.date} selects the date of every transaction. Selecting an object selects all of it.
+ * The selection is applied at the token level: to a parser, so unselected properties are never bound,
+ * and to a generator, so they are never written.
+ */
+public final class FieldSelection {
+
+    private static final int MAX_PATHS = 50;
+
+    private final Node root = new Node();
+
+    private FieldSelection() {
+    }
+
+    /**
+     * @param fields Comma-separated dotted paths
+     * @return The selection, or null when fields is blank (everything selected)
+     * @throws IllegalArgumentException if there are too many paths
+     */
+    public static FieldSelection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        String[] paths = fields.split(",");
+        if (paths.length > MAX_PATHS) {
+            throw new IllegalArgumentException("At most " + MAX_PATHS + " fields may be selected");
+        }
+        FieldSelection selection = new FieldSelection();
+        for (String path : paths) {
+            Node node = selection.root;
+            for (String name : path.trim().split("\\.")) {
+                if (!name.isEmpty()) {
+                    node = node.children.computeIfAbsent(name, n -> new Node());
+                }
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Wraps a parser so only the selected properties (and the objects and arrays leading to them) are read.
+     */
+    public JsonParser filter(JsonParser parser) {
+        return new FilteringParserDelegate(parser, root, TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true);
+    }
+
+    /**
+     * Copies only the selected properties of a value into a tree. The tree is format-neutral, so it is
+     * written in whatever format the request negotiated (JSON, CBOR or Smile).
+     */
+    public JsonNode select(ObjectMapper objectMapper, Object value) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+        try (JsonGenerator generator = new FilteringGeneratorDelegate(buffer, root,
+                TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true)) {
+            objectMapper.writeValue(generator, value);
+        }
+        try (JsonParser parser = buffer.asParser(objectMapper)) {
+            return objectMapper.readTree(parser);
+        }
+    }
+
+    /**
+     * One level of the selection tree; a node without children selects its whole value.
+     */
+    private static final class Node extends TokenFilter {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            Node child = children.get(name);
+            if (child == null) {
+                return null;
+            }
+            return child.children.isEmpty() ? TokenFilter.INCLUDE_ALL : child;
+        }
+
+        @Override
+        public TokenFilter includeElement(int index) {
+            return this;
+        }
+
+        @Override
+        protected boolean _includeScalar() {
+            return false;
+        }
+    }
+}
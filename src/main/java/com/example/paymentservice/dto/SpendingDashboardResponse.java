@@ -0,0 +1,66 @@
+package com.example.paymentservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Dashboard analytics response DTO.
+ * Computed from the in-memory columnar transaction cache.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingDashboardResponse {
+
+    @JsonProperty("start_date")
+    private String startDate;
+
+    @JsonProperty("end_date")
+    private String endDate;
+
+    @JsonProperty("total_spent")
+    private BigDecimal totalSpent;
+
+    @JsonProperty("average_daily_spend")
+    private BigDecimal averageDailySpend;
+
+    @JsonProperty("category_totals")
+    private List<CategoryTotal> categoryTotals;
+
+    @JsonProperty("daily")
+    private List<DailyPoint> daily;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryTotal {
+        @JsonProperty("category")
+        private String category;
+
+        @JsonProperty("total")
+        private BigDecimal total;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyPoint {
+        @JsonProperty("date")
+        private String date;
+
+        @JsonProperty("total")
+        private BigDecimal total;
+
+        @JsonProperty("running_balance")
+        private BigDecimal runningBalance;
+    }
+}
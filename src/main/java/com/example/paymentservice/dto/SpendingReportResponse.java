@@ -0,0 +1,72 @@
+package com.example.paymentservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Spending report response DTO.
+ * Built from pre-aggregated spending rollups, one entry per category and month.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingReportResponse {
+
+    @JsonProperty("from")
+    private String from;
+
+    @JsonProperty("to")
+    private String to;
+
+    @JsonProperty("categories")
+    private List<CategoryMonth> categories;
+
+    @JsonProperty("monthly_totals")
+    private List<MonthTotal> monthlyTotals;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryMonth {
+        @JsonProperty("month")
+        private String month;
+
+        @JsonProperty("category")
+        private String category;
+
+        @JsonProperty("total")
+        private BigDecimal total;
+
+        @JsonProperty("count")
+        private Long count;
+
+        @JsonProperty("min")
+        private BigDecimal min;
+
+        @JsonProperty("max")
+        private BigDecimal max;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthTotal {
+        @JsonProperty("month")
+        private String month;
+
+        @JsonProperty("total")
+        private BigDecimal total;
+
+        @JsonProperty("count")
+        private Long count;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.paymentservice.dto;
+
+import com.example.paymentservice.repository.projection.TransactionRow;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Transaction search response DTO.
+ * Results are ranked best match first; pass next_cursor back to get the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSearchResponse {
+
+    @JsonProperty("query")
+    private String query;
+
+    @JsonProperty("results")
+    private List<TransactionRow> results;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+}
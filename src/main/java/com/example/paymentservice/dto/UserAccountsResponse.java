@@ -0,0 +1,110 @@
+package com.example.paymentservice.dto;
+
+import com.example.paymentservice.dto.plaid.AccountsGetResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All accounts of the authenticated user across their linked Plaid items.
+ * Immutable and serialized field by field, instead of the nested maps it replaces; the JSON is unchanged:
+ * plain fields are written even when null, the optional ones (balances, item fields, icon) are left out.
+ */
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public record UserAccountsResponse(
+        @JsonProperty("accounts") List<Account> accounts,
+        @JsonProperty("items") List<Item> items,
+        @JsonProperty("total_accounts") int totalAccounts) {
+
+    private static final String INSTITUTION_LOGO_URL = "https://cdn.plaid.com/institutions/logos/%s.png";
+
+    public static UserAccountsResponse empty() {
+        return new UserAccountsResponse(List.of(), List.of(), 0);
+    }
+
+    /**
+     * Flattens the accounts of each Plaid item and resolves each item's icon once.
+     *
+     * @param responses Accounts responses, one per Plaid item
+     * @param fetchedLogoUrls Logo URLs by item ID for items whose accounts response had none
+     */
+    public static UserAccountsResponse from(List<AccountsGetResponse> responses, Map<String, String> fetchedLogoUrls) {
+        List<Account> accounts = new ArrayList<>();
+        List<Item> items = new ArrayList<>(responses.size());
+        for (AccountsGetResponse response : responses) {
+            AccountsGetResponse.Item item = response.getItem();
+            String logoUrl = item != null ? resolveLogoUrl(item, fetchedLogoUrls) : null;
+            if (response.getAccounts() != null) {
+                for (AccountsGetResponse.Account account : response.getAccounts()) {
+                    accounts.add(Account.of(account, item, logoUrl));
+                }
+            }
+            if (item != null) {
+                items.add(new Item(item.getItemId(), item.getInstitutionId(), logoUrl));
+            }
+        }
+        return new UserAccountsResponse(accounts, items, accounts.size());
+    }
+
+    /**
+     * Logo from the accounts response, else from the transactions response, else built from the institution ID.
+     */
+    private static String resolveLogoUrl(AccountsGetResponse.Item item, Map<String, String> fetchedLogoUrls) {
+        if (item.getLogoUrl() != null && !item.getLogoUrl().isEmpty()) {
+            return item.getLogoUrl();
+        }
+        if (item.getItemId() != null && fetchedLogoUrls.containsKey(item.getItemId())) {
+            return fetchedLogoUrls.get(item.getItemId());
+        }
+        if (item.getInstitutionId() != null) {
+            return String.format(INSTITUTION_LOGO_URL, item.getInstitutionId());
+        }
+        return null;
+    }
+
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    public record Account(
+            @JsonProperty("account_id") String accountId,
+            @JsonProperty("name") String name,
+            @JsonProperty("type") String type,
+            @JsonProperty("subtype") String subtype,
+            @JsonProperty("mask") String mask,
+            @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("balances") Balances balances,
+            @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("institution_id") String institutionId,
+            @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("item_id") String itemId,
+            @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("institution_icon_url") String institutionIconUrl) {
+
+        static Account of(AccountsGetResponse.Account account, AccountsGetResponse.Item item, String logoUrl) {
+            AccountsGetResponse.Balances balances = account.getBalances();
+            return new Account(
+                    account.getAccountId(),
+                    account.getName(),
+                    account.getType(),
+                    account.getSubtype(),
+                    account.getMask(),
+                    balances != null ? new Balances(balances.getAvailable(), balances.getCurrent(),
+                            balances.getLimit(), balances.getIsoCurrencyCode()) : null,
+                    item != null ? item.getInstitutionId() : null,
+                    item != null ? item.getItemId() : null,
+                    logoUrl);
+        }
+    }
+
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    public record Balances(
+            @JsonProperty("available") Double available,
+            @JsonProperty("current") Double current,
+            @JsonProperty("limit") Double limit,
+            @JsonProperty("iso_currency_code") String isoCurrencyCode) {
+    }
+
+    @JsonInclude(JsonInclude.Include.ALWAYS)
+    public record Item(
+            @JsonProperty("item_id") String itemId,
+            @JsonProperty("institution_id") String institutionId,
+            @JsonInclude(JsonInclude.Include.NON_NULL) @JsonProperty("institution_icon_url") String institutionIconUrl) {
+    }
+}
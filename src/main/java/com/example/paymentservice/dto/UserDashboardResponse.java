@@ -0,0 +1,28 @@
+package com.example.paymentservice.dto;
+
+import com.example.paymentservice.dto.plaid.TransactionsGetResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Accounts and transactions of all the user's linked Plaid items in one payload.
+ * The account and item entries are those of /api/user/accounts; transactions are those of
+ * /api/user/transactions, merged across items, newest first.
+ */
+public record UserDashboardResponse(
+        @JsonProperty("accounts") List<UserAccountsResponse.Account> accounts,
+        @JsonProperty("items") List<UserAccountsResponse.Item> items,
+        @JsonProperty("total_accounts") int totalAccounts,
+        @JsonProperty("transactions") List<TransactionsGetResponse.Transaction> transactions,
+        @JsonProperty("total_transactions") int totalTransactions,
+        @JsonProperty("start_date") String startDate,
+        @JsonProperty("end_date") String endDate) {
+
+    public static UserDashboardResponse of(UserAccountsResponse accounts,
+                                           List<TransactionsGetResponse.Transaction> transactions,
+                                           String startDate, String endDate) {
+        return new UserDashboardResponse(accounts.accounts(), accounts.items(), accounts.totalAccounts(),
+                transactions, transactions.size(), startDate, endDate);
+    }
+}
@@ -20,5 +20,8 @@ public class UserTransactionsRequest {
     // Optional: if not provided, will use default date range
     private String startDate; // Format: yyyy-MM-dd
     private String endDate;   // Format: yyyy-MM-dd
+    
+    // Optional: comma-separated response fields, e.g. transactions.date,transactions.name,transactions.amount
+    private String fields;
 }
 
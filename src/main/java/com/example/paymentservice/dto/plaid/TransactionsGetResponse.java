@@ -45,6 +45,18 @@ public class TransactionsGetResponse {
         @JsonProperty("category")
         private List<String> category;
         
+        @JsonProperty("category_id")
+        private String categoryId;
+        
+        @JsonProperty("payment_channel")
+        private String paymentChannel;
+        
+        @JsonProperty("pending")
+        private Boolean pending;
+        
+        @JsonProperty("pending_transaction_id")
+        private String pendingTransactionId;
+        
         @JsonProperty("account_owner")
         private String accountOwner;
         
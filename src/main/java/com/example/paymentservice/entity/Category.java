@@ -0,0 +1,56 @@
+package com.example.paymentservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Category entity: one node of the Plaid category hierarchy.
+ * Maps to the 'categories' table created by Liquibase. Transactions and spending rollups
+ * reference categories by their SMALLINT id instead of repeating the category text.
+ */
+@Entity
+@Table(name = "categories")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Category {
+
+    /**
+     * Separator used to join hierarchy levels into {@link #path}.
+     */
+    public static final String PATH_SEPARATOR = " > ";
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private Short id;
+
+    @Column(name = "parent_id")
+    private Short parentId;
+
+    /**
+     * Top-level ancestor; equals {@link #id} for top-level categories.
+     */
+    @Column(name = "root_id", nullable = false)
+    private Short rootId;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "path", nullable = false, unique = true, length = 500)
+    private String path;
+
+    @Column(name = "depth", nullable = false)
+    private Short depth;
+
+    @Column(name = "plaid_category_id", length = 100)
+    private String plaidCategoryId;
+
+    @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
+    private LocalDateTime createdAt;
+}
@@ -12,6 +12,7 @@ import java.util.UUID;
 /**
  * PlaidAccessToken entity representing encrypted Plaid access tokens for users.
  * Maps to the 'plaid_access_tokens' table created by Liquibase.
+ * Not cached: tokens are linked and removed on any instance, and a local cache would keep serving them.
  */
 @Entity
 @Table(name = "plaid_access_tokens", indexes = {
@@ -25,7 +26,7 @@ import java.util.UUID;
 public class PlaidAccessToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
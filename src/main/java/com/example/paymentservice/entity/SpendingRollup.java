@@ -0,0 +1,52 @@
+package com.example.paymentservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * SpendingRollup entity holding per-user, per-category, per-month transaction aggregates.
+ * Maps to the 'spending_rollups' table created by Liquibase.
+ * Rows are maintained with native upserts by TransactionIngestionService; the entity is read-only.
+ */
+@Entity
+@Table(name = "spending_rollups")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingRollup {
+
+    /**
+     * Category bucket used when Plaid does not provide one.
+     */
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    /**
+     * Category key of the uncategorized bucket; never assigned to a row of 'categories'.
+     */
+    public static final short UNCATEGORIZED_KEY = 0;
+
+    @EmbeddedId
+    private SpendingRollupId id;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount;
+
+    @Column(name = "txn_count", nullable = false)
+    private Long txnCount;
+
+    @Column(name = "min_amount", precision = 19, scale = 4)
+    private BigDecimal minAmount;
+
+    @Column(name = "max_amount", precision = 19, scale = 4)
+    private BigDecimal maxAmount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+package com.example.paymentservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Composite key for SpendingRollup: one row per user, category and month.
+ */
+@Embeddable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingRollupId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    /**
+     * Category dictionary key, {@link SpendingRollup#UNCATEGORIZED_KEY} for uncategorized transactions.
+     */
+    @Column(name = "category_key", nullable = false)
+    private Short categoryKey;
+
+    /**
+     * First day of the month the aggregate covers.
+     */
+    @Column(name = "month", nullable = false)
+    private LocalDate month;
+}
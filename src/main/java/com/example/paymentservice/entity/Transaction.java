@@ -13,7 +13,8 @@ import java.util.UUID;
 
 /**
  * Transaction entity representing user transactions from Plaid.
- * Maps to the 'transactions' table created by Liquibase.
+ * Maps to the 'transactions' table created by Liquibase, which is range-partitioned by month on 'date'.
+ * Because of partitioning, plaid_transaction_id is only unique per date at the database level.
  */
 @Entity
 @Table(name = "transactions", indexes = {
@@ -29,7 +30,7 @@ import java.util.UUID;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -37,7 +38,7 @@ public class Transaction {
     @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(name = "fk_transaction_user"))
     private User user;
 
-    @Column(name = "plaid_transaction_id", unique = true, nullable = false, length = 255)
+    @Column(name = "plaid_transaction_id", nullable = false, length = 255)
     private String plaidTransactionId;
 
     @Column(name = "account_id", length = 255)
@@ -52,11 +53,11 @@ public class Transaction {
     @Column(name = "merchant_name", length = 255)
     private String merchantName;
 
-    @Column(name = "category", length = 100)
-    private String category;
-
-    @Column(name = "category_id", length = 100)
-    private String categoryId;
+    /**
+     * Key of the most specific category in the 'categories' dictionary, null if uncategorized.
+     */
+    @Column(name = "category_key")
+    private Short categoryKey;
 
     @Column(name = "name", length = 500)
     private String name;
@@ -68,6 +69,12 @@ public class Transaction {
     @Builder.Default
     private Boolean pending = false;
 
+    /**
+     * Plaid ID of the pending transaction this posted transaction replaced, if any.
+     */
+    @Column(name = "pending_transaction_id", length = 255)
+    private String pendingTransactionId;
+
     @Column(name = "iso_currency_code", length = 3)
     private String isoCurrencyCode;
 
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -12,8 +14,11 @@ import java.util.UUID;
 /**
  * User entity representing authenticated users from Auth0.
  * Maps to the 'users' table created by Liquibase.
+ * Only the Auth0 user ID (natural ID) to ID resolution is cached: it never changes once the row exists,
+ * so an instance-local region cannot serve stale data. The row itself is always read from the database.
  */
 @Entity
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Table(name = "users", indexes = {
     @Index(name = "idx_users_auth0_user_id", columnList = "auth0_user_id")
 })
@@ -23,11 +28,14 @@ import java.util.UUID;
 @AllArgsConstructor
 public class User {
 
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-auth0-id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
+    @NaturalId
     @Column(name = "auth0_user_id", unique = true, nullable = false, length = 255)
     private String auth0UserId;
 
@@ -0,0 +1,18 @@
+package com.example.paymentservice.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates time-ordered UUIDv7 identifiers for new entities (see {@link UuidV7Generator}).
+ * Use on the {@code @Id} field in place of {@code @GeneratedValue(strategy = GenerationType.UUID)}.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
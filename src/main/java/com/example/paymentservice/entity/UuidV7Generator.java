@@ -0,0 +1,54 @@
+package com.example.paymentservice.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate identifier generator for RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp,
+ * a 12-bit counter and 62 random bits. Keys created close in time sort close together, so inserts
+ * should land at the right edge of the primary key index rather than at random leaf pages
+ * (UuidKeyInsertBenchmark measures this; it has not been run yet).
+ * Within one JVM keys are strictly increasing; the counter restarts each millisecond and, if it
+ * overflows, borrows from the next millisecond.
+ * Random v4 keys of existing rows remain valid: both are plain UUIDs to PostgreSQL and Hibernate.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return generateUuid();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * @return A new UUIDv7, greater than any previously returned by this JVM
+     */
+    public static UUID generateUuid() {
+        return generateUuid(System.currentTimeMillis());
+    }
+
+    static UUID generateUuid(long unixMillis) {
+        long timestampAndCounter = LAST_TIMESTAMP_AND_COUNTER.updateAndGet(
+                last -> Math.max(last + 1, unixMillis << 12));
+        long mostSignificant = ((timestampAndCounter >>> 12) << 16)
+                | 0x7000L
+                | (timestampAndCounter & 0xFFFL);
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for Category entity.
+ * Categories are append-only; ids are assigned by the database and cached by CategoryDictionary.
+ */
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Short> {
+
+    /**
+     * Find a category by its full hierarchy path.
+     *
+     * @param path The hierarchy path
+     * @return Optional containing the category if found
+     */
+    Optional<Category> findByPath(String path);
+
+    /**
+     * Insert a category unless one with the same path already exists.
+     * The id is drawn up front so that top-level categories can reference themselves as root, but only
+     * when the path is missing: the SMALLINT key space is small, so a known path must not consume a key.
+     *
+     * @param parentId Parent category ID, null for top-level categories
+     * @param rootId Root category ID, null for top-level categories
+     * @param name Name of this hierarchy level
+     * @param path Full hierarchy path
+     * @param depth Zero-based depth in the hierarchy
+     * @param plaidCategoryId Plaid category ID, only known for the most specific level
+     * @return Number of inserted rows (0 if the path already existed)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "categories"))
+    @Modifying
+    @Query(value = "INSERT INTO categories (id, parent_id, root_id, name, path, depth, plaid_category_id) " +
+                   "SELECT n.id, :parentId, COALESCE(:rootId, n.id), :name, :path, :depth, :plaidCategoryId " +
+                   "FROM (SELECT CAST(nextval(pg_get_serial_sequence('categories', 'id')) AS SMALLINT) AS id " +
+                   "      WHERE NOT EXISTS (SELECT 1 FROM categories c WHERE c.path = :path)) n " +
+                   "ON CONFLICT (path) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("parentId") Short parentId,
+                       @Param("rootId") Short rootId,
+                       @Param("name") String name,
+                       @Param("path") String path,
+                       @Param("depth") short depth,
+                       @Param("plaidCategoryId") String plaidCategoryId);
+}
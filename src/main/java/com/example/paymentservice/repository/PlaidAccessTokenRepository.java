@@ -2,6 +2,7 @@ package com.example.paymentservice.repository;
 
 import com.example.paymentservice.entity.PlaidAccessToken;
 import com.example.paymentservice.entity.User;
+import com.example.paymentservice.repository.projection.PlaidTokenRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -16,6 +17,8 @@ import java.util.UUID;
 /**
  * Repository interface for PlaidAccessToken entity.
  * Provides CRUD operations and custom query methods.
+ * Lookups are not query-cached: Hibernate only invalidates cached results on the instance that wrote the
+ * table, so other instances would keep returning tokens that were linked or removed elsewhere.
  */
 @Repository
 public interface PlaidAccessTokenRepository extends JpaRepository<PlaidAccessToken, UUID> {
@@ -46,6 +49,29 @@ public interface PlaidAccessTokenRepository extends JpaRepository<PlaidAccessTok
     @Query("SELECT pat FROM PlaidAccessToken pat WHERE pat.user.auth0UserId = :auth0UserId ORDER BY pat.createdAt DESC")
     List<PlaidAccessToken> findByAuth0UserId(@Param("auth0UserId") String auth0UserId);
 
+    /**
+     * Find the item ID, institution ID and encrypted token of every Plaid item of an Auth0 user, oldest first.
+     * One query joined on users.auth0_user_id, returning projections rather than entities.
+     * Lets callers release the connection before decrypting and calling Plaid.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @return Token rows
+     */
+    @Query("SELECT new com.example.paymentservice.repository.projection.PlaidTokenRow(" +
+           "pat.itemId, pat.institutionId, pat.accessTokenEncrypted) " +
+           "FROM PlaidAccessToken pat JOIN pat.user u WHERE u.auth0UserId = :auth0UserId ORDER BY pat.createdAt")
+    List<PlaidTokenRow> findTokenRowsByAuth0UserId(@Param("auth0UserId") String auth0UserId);
+
+    /**
+     * Find the encrypted access token of an Auth0 user for a Plaid item.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param itemId The Plaid item ID
+     * @return Optional containing the encrypted access token if found
+     */
+    @Query("SELECT pat.accessTokenEncrypted FROM PlaidAccessToken pat WHERE pat.user.auth0UserId = :auth0UserId AND pat.itemId = :itemId")
+    Optional<String> findEncryptedAccessTokenByAuth0UserIdAndItemId(@Param("auth0UserId") String auth0UserId, @Param("itemId") String itemId);
+
     /**
      * Find a Plaid access token by Plaid item ID.
      *
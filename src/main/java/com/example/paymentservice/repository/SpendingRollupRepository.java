@@ -0,0 +1,133 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.SpendingRollup;
+import com.example.paymentservice.entity.SpendingRollupId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for SpendingRollup entity.
+ * Writes are native upserts so that concurrent ingestion for the same user never loses a delta.
+ * They declare spending_rollups as their only query space, so Hibernate does not clear the whole
+ * second-level cache each time one runs.
+ */
+@Repository
+public interface SpendingRollupRepository extends JpaRepository<SpendingRollup, SpendingRollupId> {
+
+    /**
+     * Find all rollups for a user within a month range, ordered by month then category.
+     *
+     * @param userId The user ID
+     * @param fromMonth First month (inclusive, first day of month)
+     * @param toMonth Last month (inclusive, first day of month)
+     * @return List of rollups
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM SpendingRollup r WHERE r.id.userId = :userId " +
+           "AND r.id.month BETWEEN :fromMonth AND :toMonth ORDER BY r.id.month, r.id.categoryKey")
+    List<SpendingRollup> findByUserIdAndMonthBetween(
+            @Param("userId") UUID userId,
+            @Param("fromMonth") LocalDate fromMonth,
+            @Param("toMonth") LocalDate toMonth);
+
+    /**
+     * Add a batch of transactions (already aggregated) to a rollup, creating the row if needed.
+     *
+     * @param userId The user ID
+     * @param categoryKey The category key
+     * @param month First day of the month
+     * @param total Sum of the added amounts
+     * @param count Number of added transactions
+     * @param min Smallest added amount
+     * @param max Largest added amount
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Modifying
+    @Query(value = "INSERT INTO spending_rollups (user_id, category_key, month, total_amount, txn_count, min_amount, max_amount, updated_at) " +
+                   "VALUES (:userId, :categoryKey, :month, :total, :count, :min, :max, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (user_id, month, category_key) DO UPDATE SET " +
+                   "total_amount = spending_rollups.total_amount + EXCLUDED.total_amount, " +
+                   "txn_count = spending_rollups.txn_count + EXCLUDED.txn_count, " +
+                   "min_amount = LEAST(spending_rollups.min_amount, EXCLUDED.min_amount), " +
+                   "max_amount = GREATEST(spending_rollups.max_amount, EXCLUDED.max_amount), " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    void addToRollup(@Param("userId") UUID userId,
+                     @Param("categoryKey") short categoryKey,
+                     @Param("month") LocalDate month,
+                     @Param("total") BigDecimal total,
+                     @Param("count") long count,
+                     @Param("min") BigDecimal min,
+                     @Param("max") BigDecimal max);
+
+    /**
+     * Subtract a batch of removed transactions from a rollup.
+     * Min and max cannot be maintained under deletion, so callers must follow up with
+     * {@link #recomputeMinMax(UUID, short, LocalDate)}.
+     *
+     * @param userId The user ID
+     * @param categoryKey The category key
+     * @param month First day of the month
+     * @param total Sum of the removed amounts
+     * @param count Number of removed transactions
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Modifying
+    @Query(value = "UPDATE spending_rollups SET total_amount = total_amount - :total, " +
+                   "txn_count = txn_count - :count, updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE user_id = :userId AND month = :month AND category_key = :categoryKey",
+           nativeQuery = true)
+    void subtractFromRollup(@Param("userId") UUID userId,
+                            @Param("categoryKey") short categoryKey,
+                            @Param("month") LocalDate month,
+                            @Param("total") BigDecimal total,
+                            @Param("count") long count);
+
+    /**
+     * Recompute min and max of a single rollup from the raw transactions of that month.
+     * Only used for groups that lost rows, and reads at most one month of one user's history.
+     * Archived rows still count towards the rollup, so they are read alongside the hot table.
+     *
+     * @param userId The user ID
+     * @param categoryKey The category key
+     * @param month First day of the month
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Modifying
+    @Query(value = "UPDATE spending_rollups r SET min_amount = s.min_amount, max_amount = s.max_amount " +
+                   "FROM (SELECT MIN(u.amount) AS min_amount, MAX(u.amount) AS max_amount FROM (" +
+                   "        SELECT t.amount FROM transactions t " +
+                   "        WHERE t.user_id = :userId AND COALESCE(t.category_key, 0) = :categoryKey " +
+                   "        AND t.date >= :month AND t.date < CAST(:month AS DATE) + INTERVAL '1 month' " +
+                   "        UNION ALL " +
+                   "        SELECT a.amount FROM transactions_archive a " +
+                   "        WHERE a.user_id = :userId AND COALESCE(a.category_key, 0) = :categoryKey " +
+                   "        AND a.date >= :month AND a.date < CAST(:month AS DATE) + INTERVAL '1 month'" +
+                   "      ) u) s " +
+                   "WHERE r.user_id = :userId AND r.month = :month AND r.category_key = :categoryKey",
+           nativeQuery = true)
+    void recomputeMinMax(@Param("userId") UUID userId,
+                         @Param("categoryKey") short categoryKey,
+                         @Param("month") LocalDate month);
+
+    /**
+     * Delete rollups of a user that no longer cover any transaction.
+     *
+     * @param userId The user ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "spending_rollups"))
+    @Modifying
+    @Query(value = "DELETE FROM spending_rollups WHERE user_id = :userId AND txn_count <= 0", nativeQuery = true)
+    void deleteEmptyRollups(@Param("userId") UUID userId);
+}
@@ -2,14 +2,18 @@ package com.example.paymentservice.repository;
 
 import com.example.paymentservice.entity.Transaction;
 import com.example.paymentservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,9 +21,12 @@ import java.util.UUID;
 /**
  * Repository interface for Transaction entity.
  * Provides CRUD operations and custom query methods.
+ * Read paths that only render a few columns should use the TransactionRow projections
+ * from {@link TransactionRepositoryCustom}, which skip entity hydration entirely and also
+ * cover archived transactions. Entity finders only see the hot 'transactions' table.
  */
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>, TransactionRepositoryCustom {
 
     /**
      * Find all transactions for a user, paginated.
@@ -40,6 +47,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     /**
      * Find all transactions for a user within a date range.
+     * Hot table only; ingestion uses it as its working set and checks archived IDs separately.
      *
      * @param user The user entity
      * @param startDate Start date (inclusive)
@@ -72,6 +80,26 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
      */
     boolean existsByPlaidTransactionId(String plaidTransactionId);
 
+    /**
+     * Find all transactions matching any of the given Plaid transaction IDs.
+     *
+     * @param plaidTransactionIds The Plaid transaction IDs
+     * @return List of matching transactions
+     */
+    List<Transaction> findByPlaidTransactionIdIn(Collection<String> plaidTransactionIds);
+
+    /**
+     * Take a transaction-scoped advisory lock on a user, released at commit or rollback.
+     * The partitioned table can only enforce uniqueness of (plaid_transaction_id, date), so concurrent
+     * ingestions of the same user are serialized instead; the second one then sees the first one's rows.
+     *
+     * @param userId The user ID
+     * @return Always 1
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(hashtextextended(CAST(:userId AS TEXT), 0))) l",
+           nativeQuery = true)
+    long lockUserForIngestion(@Param("userId") UUID userId);
+
     /**
      * Find all transactions for a user by Auth0 user ID.
      *
@@ -83,12 +111,15 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
 
     /**
      * Find all transactions for a user by Auth0 user ID within a date range.
+     * Hot table only: archived rows are not entities. Reads shown to users go through
+     * {@link TransactionRepositoryCustom#findRowsByAuth0UserIdAndDateBetween}, which includes them.
      *
      * @param auth0UserId The Auth0 user ID
      * @param startDate Start date (inclusive)
      * @param endDate End date (inclusive)
      * @return List of transactions
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT t FROM Transaction t WHERE t.user.auth0UserId = :auth0UserId " +
            "AND t.date BETWEEN :startDate AND :endDate ORDER BY t.date DESC")
     List<Transaction> findByAuth0UserIdAndDateBetween(
@@ -135,13 +166,13 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     List<Transaction> findByUserAndPendingFalse(User user);
 
     /**
-     * Find transactions for a user by category.
+     * Find transactions for a user by category dictionary key.
      *
      * @param user The user entity
-     * @param category The category
+     * @param categoryKey The category key
      * @return List of transactions
      */
-    List<Transaction> findByUserAndCategory(User user, String category);
+    List<Transaction> findByUserAndCategoryKey(User user, Short categoryKey);
 
     /**
      * Find transactions for a user within a date range, ordered by date descending.
@@ -162,4 +193,3 @@ public interface TransactionRepository extends JpaRepository<Transaction, UUID>
     @Query("SELECT t FROM Transaction t WHERE t.user.auth0UserId = :auth0UserId ORDER BY t.date DESC, t.createdAt DESC")
     List<Transaction> findByAuth0UserIdOrderByDateDesc(@Param("auth0UserId") String auth0UserId);
 }
-
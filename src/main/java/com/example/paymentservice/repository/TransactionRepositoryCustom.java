@@ -0,0 +1,47 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.repository.projection.TransactionRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read-side TransactionRow queries spanning the hot 'transactions' table and 'transactions_archive'.
+ * Ranges that end after the archive horizon are served from the hot table alone; older ranges
+ * transparently union the archive.
+ */
+public interface TransactionRepositoryCustom {
+
+    /**
+     * Find transaction rows for a user by Auth0 user ID within a date range, newest first.
+     * Projection of {@link TransactionRepository#findByAuth0UserIdAndDateBetween(String, LocalDate, LocalDate)}
+     * for read endpoints.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param startDate Start date (inclusive)
+     * @param endDate End date (inclusive)
+     * @return List of transaction rows
+     */
+    List<TransactionRow> findRowsByAuth0UserIdAndDateBetween(String auth0UserId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Find a page of transaction rows for a user by Auth0 user ID, newest first.
+     * Returns a Slice so no count query is issued for large histories.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param pageable Pagination information
+     * @return Slice of transaction rows
+     */
+    Slice<TransactionRow> findRowsByAuth0UserId(String auth0UserId, Pageable pageable);
+
+    /**
+     * Find every transaction row of a user by Auth0 user ID, oldest first.
+     * Used to load the columnar analytics cache.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @return List of transaction rows
+     */
+    List<TransactionRow> findAllRowsByAuth0UserId(String auth0UserId);
+}
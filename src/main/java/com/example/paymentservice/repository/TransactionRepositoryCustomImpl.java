@@ -0,0 +1,126 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.repository.projection.TransactionRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Implementation of {@link TransactionRepositoryCustom}.
+ * The hot path is the same JPQL constructor expression as before archival existed; the union path
+ * is native SQL because the archive stores merchants as dictionary keys.
+ */
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private static final String HOT_ROWS =
+            "SELECT new com.example.paymentservice.repository.projection.TransactionRow(" +
+            "t.plaidTransactionId, t.accountId, t.amount, t.date, t.name, t.merchantName, c.path, t.pending) " +
+            "FROM Transaction t LEFT JOIN Category c ON c.id = t.categoryKey WHERE t.user.auth0UserId = :auth0UserId ";
+
+    private static final String ALL_ROWS =
+            "SELECT r.*, c.path AS category FROM (" +
+            "  SELECT t.id, t.plaid_transaction_id, t.account_id, t.amount, t.date, t.name, t.merchant_name, " +
+            "         t.category_key, t.pending " +
+            "  FROM transactions t " +
+            "  WHERE t.user_id = (SELECT id FROM users WHERE auth0_user_id = :auth0UserId) %1$s" +
+            "  UNION ALL " +
+            "  SELECT a.id, a.plaid_transaction_id, a.account_id, a.amount, a.date, a.name, m.name, " +
+            "         a.category_key, FALSE " +
+            "  FROM transactions_archive a LEFT JOIN merchants m ON m.id = a.merchant_key " +
+            "  WHERE a.user_id = (SELECT id FROM users WHERE auth0_user_id = :auth0UserId) %2$s" +
+            ") r LEFT JOIN categories c ON c.id = r.category_key ";
+
+    private static final RowMapper<TransactionRow> ROW_MAPPER = (rs, rowNum) -> new TransactionRow(
+            rs.getString("plaid_transaction_id"),
+            rs.getString("account_id"),
+            rs.getBigDecimal("amount"),
+            rs.getObject("date", LocalDate.class),
+            rs.getString("name"),
+            rs.getString("merchant_name"),
+            rs.getString("category"),
+            rs.getBoolean("pending"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final int archiveHorizonDays;
+
+    public TransactionRepositoryCustomImpl(NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                           @Value("${app.transactions.archive.horizon-days:365}") int archiveHorizonDays) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.archiveHorizonDays = archiveHorizonDays;
+    }
+
+    @Override
+    public List<TransactionRow> findRowsByAuth0UserIdAndDateBetween(String auth0UserId, LocalDate startDate, LocalDate endDate) {
+        if (!startDate.isBefore(archiveHorizon())) {
+            return hotRows(HOT_ROWS + "AND t.date BETWEEN :startDate AND :endDate ORDER BY t.date DESC, t.id", auth0UserId, 500)
+                    .setParameter("startDate", startDate)
+                    .setParameter("endDate", endDate)
+                    .getResultList();
+        }
+        return namedParameterJdbcTemplate.query(
+                String.format(ALL_ROWS, "AND t.date BETWEEN :startDate AND :endDate ",
+                        "AND a.date BETWEEN :startDate AND :endDate ") + "ORDER BY r.date DESC, r.id",
+                new MapSqlParameterSource()
+                        .addValue("auth0UserId", auth0UserId)
+                        .addValue("startDate", startDate)
+                        .addValue("endDate", endDate),
+                ROW_MAPPER);
+    }
+
+    @Override
+    public Slice<TransactionRow> findRowsByAuth0UserId(String auth0UserId, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<TransactionRow> rows = hotRows(HOT_ROWS + "ORDER BY t.date DESC, t.id", auth0UserId, 500)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(size + 1)
+                .getResultList();
+
+        // Archived rows all predate the horizon, so a full hot page ending after it is already exact
+        boolean exact = rows.size() > size && !rows.get(size).date().isBefore(archiveHorizon());
+        if (!exact) {
+            rows = namedParameterJdbcTemplate.query(
+                    String.format(ALL_ROWS, "", "") + "ORDER BY r.date DESC, r.id LIMIT :limit OFFSET :offset",
+                    new MapSqlParameterSource()
+                            .addValue("auth0UserId", auth0UserId)
+                            .addValue("limit", size + 1)
+                            .addValue("offset", pageable.getOffset()),
+                    ROW_MAPPER);
+        }
+
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<TransactionRow> findAllRowsByAuth0UserId(String auth0UserId) {
+        return namedParameterJdbcTemplate.query(
+                String.format(ALL_ROWS, "", "") + "ORDER BY r.date, r.id",
+                new MapSqlParameterSource("auth0UserId", auth0UserId),
+                ROW_MAPPER);
+    }
+
+    private TypedQuery<TransactionRow> hotRows(String jpql, String auth0UserId, int fetchSize) {
+        return entityManager.createQuery(jpql, TransactionRow.class)
+                .setParameter("auth0UserId", auth0UserId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+    }
+
+    private LocalDate archiveHorizon() {
+        return LocalDate.now().minusDays(archiveHorizonDays);
+    }
+}
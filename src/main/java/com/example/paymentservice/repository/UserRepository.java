@@ -14,15 +14,7 @@ import java.util.UUID;
  * Provides CRUD operations and custom query methods.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-
-    /**
-     * Find a user by their Auth0 user ID (sub claim).
-     *
-     * @param auth0UserId The Auth0 user ID
-     * @return Optional containing the User if found
-     */
-    Optional<User> findByAuth0UserId(String auth0UserId);
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
 
     /**
      * Check if a user exists with the given Auth0 user ID.
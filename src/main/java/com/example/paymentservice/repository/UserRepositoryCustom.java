@@ -0,0 +1,20 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.User;
+
+import java.util.Optional;
+
+/**
+ * User lookups that go through Hibernate's natural-ID API, so they can be answered from the
+ * second-level cache instead of a query.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Find a user by their Auth0 user ID (sub claim).
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @return Optional containing the User if found
+     */
+    Optional<User> findByAuth0UserId(String auth0UserId);
+}
@@ -0,0 +1,28 @@
+package com.example.paymentservice.repository;
+
+import com.example.paymentservice.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Implementation of {@link UserRepositoryCustom}.
+ * A derived query would always hit the database by Auth0 user ID; a natural-ID load resolves the ID
+ * from the natural-ID cache region and then reads the row by primary key.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByAuth0UserId(String auth0UserId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(auth0UserId);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.paymentservice.repository.projection;
+
+/**
+ * Read-only projection of a stored Plaid access token.
+ * Selected with a JPQL constructor expression joined on the Auth0 user ID, so request paths get every
+ * token of a user in one round trip without hydrating PlaidAccessToken or User entities.
+ * The token is still encrypted; decrypt it with TokenEncryptionService outside any transaction.
+ */
+public record PlaidTokenRow(
+        String itemId,
+        String institutionId,
+        String accessTokenEncrypted) {
+}
@@ -0,0 +1,22 @@
+package com.example.paymentservice.repository.projection;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a stored transaction.
+ * Selected with a JPQL constructor expression, so no entity, proxy or dirty-checking snapshot is created.
+ * The category is the full hierarchy path from the 'categories' dictionary.
+ */
+public record TransactionRow(
+        @JsonProperty("transaction_id") String plaidTransactionId,
+        @JsonProperty("account_id") String accountId,
+        @JsonProperty("amount") BigDecimal amount,
+        @JsonProperty("date") LocalDate date,
+        @JsonProperty("name") String name,
+        @JsonProperty("merchant_name") String merchantName,
+        @JsonProperty("category") String category,
+        @JsonProperty("pending") Boolean pending) {
+}
@@ -31,6 +31,10 @@ public class Auth0Service {
      * @throws IllegalArgumentException if token is invalid or signature verification fails
      */
     public String validateTokenAndExtractUserId(String accessToken) {
+        String alreadyValidated = CurrentUserContext.getIfValidated(accessToken);
+        if (alreadyValidated != null) {
+            return alreadyValidated;
+        }
         try {
             log.info("Validating Auth0 token with signature verification");
             
@@ -60,6 +64,7 @@ public class Auth0Service {
             }
 
             log.info("Successfully validated Auth0 token and extracted user ID: {}", userId);
+            CurrentUserContext.set(userId, accessToken);
             return userId;
             
         } catch (IllegalArgumentException e) {
@@ -0,0 +1,178 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.config.ShardRouter;
+import com.example.paymentservice.entity.Category;
+import com.example.paymentservice.entity.SpendingRollup;
+import com.example.paymentservice.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory interning map for the 'categories' dictionary table.
+ * Resolves Plaid category hierarchies to SMALLINT keys at ingestion time and keys back to
+ * names for responses, so neither path touches the database once a category has been seen.
+ * The table is append-only, which makes the cache safe to share between instances.
+ * Keys are assigned per database, so with user sharding every shard gets its own map.
+ */
+@Slf4j
+@Service
+public class CategoryDictionary {
+
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_PATH_LENGTH = 500;
+
+    private final CategoryRepository categoryRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate requiresNew;
+    private final Map<String, Entries> shards = new ConcurrentHashMap<>();
+
+    public CategoryDictionary(CategoryRepository categoryRepository, ShardRouter shardRouter,
+                              PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.shardRouter = shardRouter;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Interns every level of a Plaid category hierarchy and returns the key of the most specific one.
+     * New categories are committed in their own transaction, so a key handed out here stays valid
+     * even if the caller's transaction rolls back. That transaction takes a pooled connection of its own,
+     * so callers intern before opening theirs; inside one, only already known categories are cheap.
+     *
+     * @param hierarchy Plaid category hierarchy, most general first
+     * @param plaidCategoryId Plaid ID of the most specific category, may be null
+     * @return Category key, or null if the hierarchy is empty
+     */
+    public Short intern(List<String> hierarchy, String plaidCategoryId) {
+        if (hierarchy == null || hierarchy.isEmpty()) {
+            return null;
+        }
+        Entries entries = ensureLoaded();
+
+        Category parent = null;
+        StringBuilder path = new StringBuilder();
+        for (int depth = 0; depth < hierarchy.size(); depth++) {
+            String name = hierarchy.get(depth);
+            if (name == null || name.isBlank()) {
+                break;
+            }
+            name = name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+            int lengthBefore = path.length();
+            if (depth > 0) {
+                path.append(Category.PATH_SEPARATOR);
+            }
+            path.append(name);
+            if (path.length() > MAX_PATH_LENGTH) {
+                path.setLength(lengthBefore);
+                break;
+            }
+
+            String leafId = depth == hierarchy.size() - 1 ? plaidCategoryId : null;
+            Category category = entries.byPath.get(path.toString());
+            if (category == null) {
+                category = create(entries, parent, name, path.toString(), (short) depth, leafId);
+            }
+            parent = category;
+        }
+        return parent != null ? parent.getId() : null;
+    }
+
+    /**
+     * @param key Category key, may be null or {@link SpendingRollup#UNCATEGORIZED_KEY}
+     * @return Full hierarchy path, or null if uncategorized
+     */
+    public String path(Short key) {
+        Category category = lookup(key);
+        return category != null ? category.getPath() : null;
+    }
+
+    /**
+     * @param key Category key, may be null or {@link SpendingRollup#UNCATEGORIZED_KEY}
+     * @return Key of the top-level ancestor, {@link SpendingRollup#UNCATEGORIZED_KEY} if uncategorized
+     */
+    public short rootOf(Short key) {
+        Category category = lookup(key);
+        return category != null ? category.getRootId() : SpendingRollup.UNCATEGORIZED_KEY;
+    }
+
+    private Category lookup(Short key) {
+        if (key == null || key == SpendingRollup.UNCATEGORIZED_KEY) {
+            return null;
+        }
+        Entries entries = ensureLoaded();
+        Category category = entries.byId.get(key);
+        if (category == null) {
+            // Created by another instance since we loaded
+            category = categoryRepository.findById(key).orElse(null);
+            if (category != null) {
+                entries.put(category);
+            }
+        }
+        return category;
+    }
+
+    private Category create(Entries entries, Category parent, String name, String path, short depth,
+                            String plaidCategoryId) {
+        Category category = requiresNew.execute(status -> {
+            // Usually created by another instance since we loaded; only draw a key for a really new path
+            Optional<Category> existing = categoryRepository.findByPath(path);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+            categoryRepository.insertIfAbsent(
+                    parent != null ? parent.getId() : null,
+                    parent != null ? parent.getRootId() : null,
+                    name, path, depth, plaidCategoryId);
+            return categoryRepository.findByPath(path).orElseThrow(
+                    () -> new IllegalStateException("Category not found after insert: " + path));
+        });
+        log.debug("Interned category {} as {}", path, category.getId());
+        entries.put(category);
+        return category;
+    }
+
+    /**
+     * @return Dictionary of the shard the current thread's queries go to, loaded on first use
+     */
+    private Entries ensureLoaded() {
+        String shard = shardRouter.currentShard();
+        Entries entries = shards.computeIfAbsent(shard, s -> new Entries());
+        if (!entries.loaded) {
+            // A lock rather than synchronized: the load queries the database and must not pin a virtual thread
+            entries.loadLock.lock();
+            try {
+                if (!entries.loaded) {
+                    categoryRepository.findAll().forEach(entries::put);
+                    entries.loaded = true;
+                    log.info("Loaded {} categories from shard {}", entries.byId.size(), shard);
+                }
+            } finally {
+                entries.loadLock.unlock();
+            }
+        }
+        return entries;
+    }
+
+    private static final class Entries {
+
+        private final Map<String, Category> byPath = new ConcurrentHashMap<>();
+        private final Map<Short, Category> byId = new ConcurrentHashMap<>();
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private volatile boolean loaded;
+
+        private void put(Category category) {
+            byPath.put(category.getPath(), category);
+            byId.put(category.getId(), category);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.paymentservice.service;
+
+/**
+ * Holds the Auth0 user ID of the request being processed on the current thread.
+ * Set by Auth0Service once a token has been validated and cleared by CurrentUserContextFilter
+ * when the request completes. Infrastructure such as DataSource routing reads it; business code
+ * should keep passing the user ID explicitly.
+ */
+public final class CurrentUserContext {
+
+    private static final ThreadLocal<String> AUTH0_USER_ID = new ThreadLocal<>();
+    private static final ThreadLocal<String> VALIDATED_TOKEN = new ThreadLocal<>();
+
+    private CurrentUserContext() {
+    }
+
+    public static void set(String auth0UserId) {
+        AUTH0_USER_ID.set(auth0UserId);
+    }
+
+    /**
+     * Records the user together with the token that proved it, so later validations of the same
+     * token within the request (e.g. rate limiting, then the controller) skip signature verification.
+     */
+    public static void set(String auth0UserId, String accessToken) {
+        AUTH0_USER_ID.set(auth0UserId);
+        VALIDATED_TOKEN.set(accessToken);
+    }
+
+    /**
+     * @param accessToken An Auth0 access token
+     * @return The current user ID if this exact token was already validated in this request, otherwise null
+     */
+    public static String getIfValidated(String accessToken) {
+        String validated = VALIDATED_TOKEN.get();
+        return validated != null && validated.equals(accessToken) ? AUTH0_USER_ID.get() : null;
+    }
+
+    /**
+     * @return The current Auth0 user ID, or null outside an authenticated request
+     */
+    public static String get() {
+        return AUTH0_USER_ID.get();
+    }
+
+    public static void clear() {
+        AUTH0_USER_ID.remove();
+        VALIDATED_TOKEN.remove();
+    }
+}
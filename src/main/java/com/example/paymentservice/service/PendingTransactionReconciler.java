@@ -0,0 +1,110 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service to replace stored pending transactions once Plaid reports them as posted.
+ * Posted transactions get a new transaction_id; the pending row they replace is found either
+ * through Plaid's pending_transaction_id link or, when Plaid gives no link, by matching amount,
+ * merchant and a posting date within a few days of the pending date. Matching and deletion run
+ * as a single set-based statement per ingestion.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PendingTransactionReconciler {
+
+    private static final String PENDING_FILTER =
+            "p.user_id = :userId AND p.pending ";
+
+    private static final String EXCLUDE_FETCHED =
+            "AND p.plaid_transaction_id NOT IN (:fetchedIds) ";
+
+    private static final String RECONCILE_SQL =
+            "WITH linked AS (" +
+            "  SELECT p.id AS pending_id, p.date AS pending_date " +
+            "  FROM transactions p " +
+            "  JOIN transactions s ON s.user_id = p.user_id AND NOT s.pending " +
+            "                     AND s.pending_transaction_id = p.plaid_transaction_id " +
+            "  WHERE %1$s" +
+            "), " +
+            // Closest posting date wins for each pending row, then for each posted row
+            "fallback_candidates AS (" +
+            "  SELECT DISTINCT ON (p.id) p.id AS pending_id, p.date AS pending_date, " +
+            "         p.plaid_transaction_id AS pending_plaid_id, s.id AS posted_id, s.date AS posted_date " +
+            "  FROM transactions p " +
+            "  JOIN transactions s ON s.user_id = p.user_id AND NOT s.pending AND s.pending_transaction_id IS NULL " +
+            "                     AND s.amount = p.amount " +
+            "                     AND COALESCE(s.merchant_name, s.name) = COALESCE(p.merchant_name, p.name) " +
+            "                     AND s.date BETWEEN p.date AND p.date + CAST(:maxDaysToPost AS INTEGER) " +
+            "  WHERE %1$s" +
+            "    AND NOT EXISTS (SELECT 1 FROM linked l WHERE l.pending_id = p.id) " +
+            "  ORDER BY p.id, s.date - p.date, s.id" +
+            "), " +
+            "fallback AS (" +
+            "  SELECT DISTINCT ON (posted_id) * FROM fallback_candidates " +
+            "  ORDER BY posted_id, posted_date - pending_date, pending_id" +
+            "), " +
+            // Record the inferred link so the posted row cannot absorb another pending row later
+            "link_fallback AS (" +
+            "  UPDATE transactions s SET pending_transaction_id = f.pending_plaid_id, updated_at = CURRENT_TIMESTAMP " +
+            "  FROM fallback f WHERE s.id = f.posted_id AND s.date = f.posted_date" +
+            ") " +
+            "DELETE FROM transactions p " +
+            "USING (SELECT pending_id, pending_date FROM linked " +
+            "       UNION ALL SELECT pending_id, pending_date FROM fallback) m " +
+            "WHERE p.id = m.pending_id AND p.date = m.pending_date " +
+            "RETURNING p.plaid_transaction_id, p.amount, p.date, p.category_key";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${app.transactions.reconciliation.max-days-to-post:10}")
+    private int maxDaysToPost;
+
+    /**
+     * Deletes the stored pending transactions of a user that have a posted counterpart.
+     * Must run in the ingestion transaction after the posted rows have been flushed.
+     *
+     * @param userId The user ID
+     * @param fetchedIds Transaction IDs in the current Plaid response; pending rows Plaid still
+     *                   reports are never replaced through the fallback match
+     * @return The deleted pending rows (ID, amount, date and category key only), for rollup deltas
+     */
+    public List<Transaction> reconcile(UUID userId, Collection<String> fetchedIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("maxDaysToPost", maxDaysToPost);
+
+        String pendingFilter = PENDING_FILTER;
+        if (!fetchedIds.isEmpty()) {
+            pendingFilter += EXCLUDE_FETCHED;
+            params.addValue("fetchedIds", fetchedIds);
+        }
+
+        List<Transaction> replaced = namedParameterJdbcTemplate.query(
+                String.format(RECONCILE_SQL, pendingFilter), params,
+                (rs, rowNum) -> Transaction.builder()
+                        .plaidTransactionId(rs.getString("plaid_transaction_id"))
+                        .amount(rs.getBigDecimal("amount"))
+                        .date(rs.getObject("date", LocalDate.class))
+                        .categoryKey(rs.getObject("category_key") != null ? rs.getShort("category_key") : null)
+                        .pending(true)
+                        .build());
+
+        if (!replaced.isEmpty()) {
+            log.info("Replaced {} pending transaction(s) with posted ones for user: {}", replaced.size(), userId);
+        }
+        return replaced;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.paymentservice.service;
 
 import com.example.paymentservice.config.PlaidProperties;
+import com.example.paymentservice.dto.FieldSelection;
 import com.example.paymentservice.dto.plaid.*;
 import com.example.paymentservice.exception.PlaidApiException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -111,6 +113,17 @@ public class PlaidService {
     }
 
     public TransactionsGetResponse getTransactions(String accessToken, LocalDate startDate, LocalDate endDate) {
+        return getTransactions(accessToken, startDate, endDate, null);
+    }
+
+    /**
+     * Retrieves transactions, binding only the selected fields of Plaid's response.
+     * The rest of the response is skipped token by token instead of being mapped into objects.
+     *
+     * @param fields Fields to keep, or null for the whole response
+     */
+    public TransactionsGetResponse getTransactions(String accessToken, LocalDate startDate, LocalDate endDate,
+                                                   FieldSelection fields) {
         log.info("Retrieving transactions for access token from {} to {}", startDate, endDate);
         
         TransactionsGetRequest request = TransactionsGetRequest.builder()
@@ -126,6 +139,18 @@ public class PlaidService {
             HttpHeaders headers = createHeaders();
             HttpEntity<TransactionsGetRequest> entity = new HttpEntity<>(request, headers);
             
+            if (fields != null) {
+                TransactionsGetResponse response = restTemplate.execute(url, HttpMethod.POST,
+                        restTemplate.httpEntityCallback(entity, TransactionsGetResponse.class),
+                        clientResponse -> {
+                            try (JsonParser parser = fields.filter(objectMapper.createParser(clientResponse.getBody()))) {
+                                return objectMapper.readValue(parser, TransactionsGetResponse.class);
+                            }
+                        });
+                log.info("Transactions retrieved successfully (selected fields only)");
+                return response;
+            }
+            
             ResponseEntity<TransactionsGetResponse> response = restTemplate.postForEntity(
                     url, entity, TransactionsGetResponse.class);
             
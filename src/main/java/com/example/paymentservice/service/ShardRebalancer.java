@@ -0,0 +1,217 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.config.ShardRouter;
+import com.example.paymentservice.entity.Category;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Moves users to the shard the hash ring now assigns them, after shards were appended to
+ * app.datasource.sharding.shards. Every shard is scanned for users owned elsewhere and only those
+ * users' rows are copied, so adding a shard moves about 1/N of the users rather than all of them.
+ * <p>
+ * Each user is copied into the target shard in one transaction, then deleted from the source in another
+ * (child rows follow through ON DELETE CASCADE). Copies skip rows that already exist, so an interrupted
+ * run can be restarted. Category and merchant keys are dictionary keys local to each shard and are
+ * re-interned by path and name on the target.
+ * <p>
+ * Run it as a one-off process with the new shard list while no instance still routes with the old one:
+ * {@code java -jar app.jar --spring.main.web-application-type=none --app.datasource.sharding.rebalance.run=true}
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShardRebalancer implements ApplicationRunner {
+
+    /**
+     * Tables with per-user rows, copied in this order after 'users'.
+     */
+    private static final List<String> USER_TABLES =
+            List.of("plaid_access_tokens", "transactions", "transactions_archive", "spending_rollups");
+
+    private static final Pattern PATH_SEPARATOR = Pattern.compile(Pattern.quote(Category.PATH_SEPARATOR));
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryDictionary categoryDictionary;
+    private final ApplicationContext applicationContext;
+    private final Map<String, List<String>> writableColumns = new ConcurrentHashMap<>();
+
+    @Value("${app.datasource.sharding.rebalance.run:false}")
+    private boolean runOnStartup;
+
+    @Value("${app.datasource.sharding.rebalance.dry-run:false}")
+    private boolean dryRun;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!runOnStartup) {
+            return;
+        }
+        int exitCode = 0;
+        try {
+            rebalance(dryRun);
+        } catch (RuntimeException e) {
+            log.error("Shard rebalance failed; it can be restarted safely", e);
+            exitCode = 1;
+        }
+        int status = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> status));
+    }
+
+    /**
+     * Moves every user that does not live on the shard the ring assigns them.
+     *
+     * @param dryRun Only count and log the users that would move
+     * @return Number of users moved (or that would be moved)
+     */
+    public int rebalance(boolean dryRun) {
+        if (!shardRouter.isSharded()) {
+            log.info("No shards configured; nothing to rebalance");
+            return 0;
+        }
+        int moved = 0;
+        for (String source : shardRouter.shardNames()) {
+            List<Map<String, Object>> users = shardRouter.callOnShard(source,
+                    () -> jdbcTemplate.queryForList("SELECT id, auth0_user_id FROM users"));
+            for (Map<String, Object> user : users) {
+                String target = shardRouter.shardFor((String) user.get("auth0_user_id"));
+                if (target.equals(source)) {
+                    continue;
+                }
+                UUID userId = (UUID) user.get("id");
+                if (!dryRun) {
+                    moveUser(userId, source, target);
+                }
+                log.info("{} user {} from shard {} to shard {}", dryRun ? "Would move" : "Moved", userId, source, target);
+                moved++;
+            }
+        }
+        log.info("Shard rebalance {}: {} user(s)", dryRun ? "dry run" : "complete", moved);
+        return moved;
+    }
+
+    private void moveUser(UUID userId, String source, String target) {
+        Map<String, List<Map<String, Object>>> rows = new LinkedHashMap<>();
+        Map<Short, String[]> categories = new HashMap<>();
+        Map<Integer, String> merchants = new HashMap<>();
+
+        shardRouter.runOnShard(source, () -> {
+            rows.put("users", jdbcTemplate.queryForList("SELECT * FROM users WHERE id = ?", userId));
+            for (String table : USER_TABLES) {
+                rows.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table + " WHERE user_id = ?", userId));
+            }
+            Set<Short> categoryKeys = collectKeys(rows, "category_key", Number::shortValue);
+            categoryKeys.remove((short) 0);
+            if (!categoryKeys.isEmpty()) {
+                namedParameterJdbcTemplate.query("SELECT id, path, plaid_category_id FROM categories WHERE id IN (:ids)",
+                        new MapSqlParameterSource("ids", categoryKeys),
+                        rs -> {
+                            categories.put(rs.getShort("id"),
+                                    new String[]{rs.getString("path"), rs.getString("plaid_category_id")});
+                        });
+            }
+            Set<Integer> merchantKeys = collectKeys(rows, "merchant_key", Number::intValue);
+            if (!merchantKeys.isEmpty()) {
+                namedParameterJdbcTemplate.query("SELECT id, name FROM merchants WHERE id IN (:ids)",
+                        new MapSqlParameterSource("ids", merchantKeys),
+                        rs -> {
+                            merchants.put(rs.getInt("id"), rs.getString("name"));
+                        });
+            }
+        });
+
+        shardRouter.runOnShard(target, () -> {
+            // Dictionary keys are interned in their own transactions, before the copy starts
+            Map<Short, Short> categoryKeys = new HashMap<>();
+            categories.forEach((key, category) -> categoryKeys.put(key, categoryDictionary.intern(
+                    Arrays.asList(PATH_SEPARATOR.split(category[0])), category[1])));
+            categoryKeys.put((short) 0, (short) 0);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Integer, Integer> merchantKeys = internMerchants(merchants);
+                rows.forEach((table, tableRows) -> copy(table, tableRows, categoryKeys, merchantKeys));
+            });
+        });
+
+        shardRouter.runOnShard(source, () -> transactionTemplate.executeWithoutResult(
+                status -> jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId)));
+    }
+
+    private Map<Integer, Integer> internMerchants(Map<Integer, String> merchants) {
+        if (merchants.isEmpty()) {
+            return Map.of();
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO merchants (name) VALUES (?) ON CONFLICT (name) DO NOTHING",
+                merchants.values().stream().map(name -> new Object[]{name}).toList());
+        Map<String, Integer> targetIds = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, name FROM merchants WHERE name IN (:names)",
+                new MapSqlParameterSource("names", new HashSet<>(merchants.values())),
+                rs -> {
+                    targetIds.put(rs.getString("name"), rs.getInt("id"));
+                });
+        return merchants.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> targetIds.get(e.getValue())));
+    }
+
+    private void copy(String table, List<Map<String, Object>> rows,
+                      Map<Short, Short> categoryKeys, Map<Integer, Integer> merchantKeys) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = writableColumns.computeIfAbsent(table, t -> jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = ? AND is_generated = 'NEVER' " +
+                "ORDER BY ordinal_position", String.class, t));
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" +
+                columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ") ON CONFLICT DO NOTHING";
+
+        List<Object[]> batch = rows.stream().map(row -> columns.stream().map(column -> {
+            Object value = row.get(column);
+            if (value instanceof Number key && "category_key".equals(column)) {
+                return categoryKeys.get(key.shortValue());
+            }
+            if (value instanceof Number key && "merchant_key".equals(column)) {
+                return merchantKeys.get(key.intValue());
+            }
+            return value;
+        }).toArray()).toList();
+        jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    private static <K> Set<K> collectKeys(Map<String, List<Map<String, Object>>> rows, String column,
+                                          Function<Number, K> convert) {
+        Set<K> keys = new HashSet<>();
+        rows.values().forEach(tableRows -> tableRows.forEach(row -> {
+            if (row.get(column) instanceof Number key) {
+                keys.add(convert.apply(key));
+            }
+        }));
+        return keys;
+    }
+}
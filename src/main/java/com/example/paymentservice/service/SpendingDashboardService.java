@@ -0,0 +1,80 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.SpendingDashboardResponse;
+import com.example.paymentservice.entity.SpendingRollup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service to compute dashboard analytics (category totals, daily burn, running balance)
+ * from the columnar transaction cache instead of re-querying the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SpendingDashboardService {
+
+    private final TransactionColumnCache transactionColumnCache;
+
+    /**
+     * Builds dashboard analytics for a user over a date window.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param startDate First day (inclusive)
+     * @param endDate Last day (inclusive)
+     * @return Dashboard analytics
+     */
+    public SpendingDashboardResponse getDashboard(String auth0UserId, LocalDate startDate, LocalDate endDate) {
+        UserTransactionColumns columns = transactionColumnCache.get(auth0UserId);
+        int fromDay = (int) startDate.toEpochDay();
+        int toDay = (int) endDate.toEpochDay();
+
+        long[] byCategory = columns.totalsByCategory(fromDay, toDay);
+        List<SpendingDashboardResponse.CategoryTotal> categoryTotals = new ArrayList<>();
+        for (int id = 0; id < byCategory.length; id++) {
+            if (byCategory[id] != 0) {
+                String category = columns.categoryName(id);
+                categoryTotals.add(SpendingDashboardResponse.CategoryTotal.builder()
+                        .category(category != null ? category : SpendingRollup.UNCATEGORIZED)
+                        .total(UserTransactionColumns.fromMinorUnits(byCategory[id]))
+                        .build());
+            }
+        }
+        categoryTotals.sort(Comparator.comparing(SpendingDashboardResponse.CategoryTotal::getTotal).reversed());
+
+        long[] daily = columns.dailyTotals(fromDay, toDay);
+        long[] balance = columns.runningBalance(fromDay, toDay);
+        List<SpendingDashboardResponse.DailyPoint> points = new ArrayList<>(daily.length);
+        long totalSpent = 0;
+        for (int i = 0; i < daily.length; i++) {
+            totalSpent += daily[i];
+            points.add(SpendingDashboardResponse.DailyPoint.builder()
+                    .date(startDate.plusDays(i).toString())
+                    .total(UserTransactionColumns.fromMinorUnits(daily[i]))
+                    .runningBalance(UserTransactionColumns.fromMinorUnits(balance[i]))
+                    .build());
+        }
+
+        BigDecimal total = UserTransactionColumns.fromMinorUnits(totalSpent);
+        BigDecimal averageDaily = daily.length > 0
+                ? total.divide(BigDecimal.valueOf(daily.length), 2, RoundingMode.HALF_EVEN)
+                : BigDecimal.ZERO;
+
+        return SpendingDashboardResponse.builder()
+                .startDate(startDate.toString())
+                .endDate(endDate.toString())
+                .totalSpent(total)
+                .averageDailySpend(averageDaily)
+                .categoryTotals(categoryTotals)
+                .daily(points)
+                .build();
+    }
+}
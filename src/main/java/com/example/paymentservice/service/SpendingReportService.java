@@ -0,0 +1,114 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.SpendingReportResponse;
+import com.example.paymentservice.entity.SpendingRollup;
+import com.example.paymentservice.entity.User;
+import com.example.paymentservice.repository.SpendingRollupRepository;
+import com.example.paymentservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service to build spending reports from the spending_rollups table.
+ * Reads O(categories x months) rows instead of scanning raw transactions.
+ * Rollups are stored per most specific category; top-level totals are derived by grouping
+ * on the root key from the in-memory category dictionary.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SpendingReportService {
+
+    private final UserRepository userRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final CategoryDictionary categoryDictionary;
+
+    /**
+     * Builds a spending report for a user over a month range.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param from First month (inclusive)
+     * @param to Last month (inclusive)
+     * @param detailed Whether to report the most specific categories instead of top-level ones
+     * @return Spending report, empty if the user has no stored transactions
+     */
+    @Transactional(readOnly = true)
+    public SpendingReportResponse getSpendingReport(String auth0UserId, YearMonth from, YearMonth to, boolean detailed) {
+        log.info("Building spending report for user: {} from {} to {}", auth0UserId, from, to);
+
+        Map<CategoryMonthKey, SpendingReportResponse.CategoryMonth> categories = new HashMap<>();
+        Map<YearMonth, SpendingReportResponse.MonthTotal> monthlyTotals = new LinkedHashMap<>();
+
+        Optional<User> userOpt = userRepository.findByAuth0UserId(auth0UserId);
+        if (userOpt.isPresent()) {
+            List<SpendingRollup> rollups = spendingRollupRepository.findByUserIdAndMonthBetween(
+                    userOpt.get().getId(), from.atDay(1), to.atDay(1));
+
+            for (SpendingRollup rollup : rollups) {
+                YearMonth month = YearMonth.from(rollup.getId().getMonth());
+                short categoryKey = detailed
+                        ? rollup.getId().getCategoryKey()
+                        : categoryDictionary.rootOf(rollup.getId().getCategoryKey());
+                SpendingReportResponse.CategoryMonth entry = categories.get(new CategoryMonthKey(month, categoryKey));
+                if (entry == null) {
+                    String path = categoryDictionary.path(categoryKey);
+                    categories.put(new CategoryMonthKey(month, categoryKey), SpendingReportResponse.CategoryMonth.builder()
+                            .month(month.toString())
+                            .category(path != null ? path : SpendingRollup.UNCATEGORIZED)
+                            .total(rollup.getTotalAmount())
+                            .count(rollup.getTxnCount())
+                            .min(rollup.getMinAmount())
+                            .max(rollup.getMaxAmount())
+                            .build());
+                } else {
+                    entry.setTotal(entry.getTotal().add(rollup.getTotalAmount()));
+                    entry.setCount(entry.getCount() + rollup.getTxnCount());
+                    entry.setMin(min(entry.getMin(), rollup.getMinAmount()));
+                    entry.setMax(max(entry.getMax(), rollup.getMaxAmount()));
+                }
+
+                SpendingReportResponse.MonthTotal total = monthlyTotals.computeIfAbsent(month,
+                        m -> SpendingReportResponse.MonthTotal.builder()
+                                .month(m.toString())
+                                .total(BigDecimal.ZERO)
+                                .count(0L)
+                                .build());
+                total.setTotal(total.getTotal().add(rollup.getTotalAmount()));
+                total.setCount(total.getCount() + rollup.getTxnCount());
+            }
+        }
+
+        return SpendingReportResponse.builder()
+                .from(from.toString())
+                .to(to.toString())
+                .categories(categories.values().stream()
+                        .sorted(Comparator.comparing(SpendingReportResponse.CategoryMonth::getMonth)
+                                .thenComparing(SpendingReportResponse.CategoryMonth::getCategory))
+                        .toList())
+                .monthlyTotals(new ArrayList<>(monthlyTotals.values()))
+                .build();
+    }
+
+    private static BigDecimal min(BigDecimal a, BigDecimal b) {
+        return a == null ? b : b == null ? a : a.min(b);
+    }
+
+    private static BigDecimal max(BigDecimal a, BigDecimal b) {
+        return a == null ? b : b == null ? a : a.max(b);
+    }
+
+    private record CategoryMonthKey(YearMonth month, short categoryKey) {
+    }
+}
@@ -20,6 +20,9 @@ public class TokenEncryptionService {
     @Value("${app.encryption.password:}")
     private String encryptionPassword;
 
+    @Value("${app.encryption.pool-size:4}")
+    private int poolSize;
+
     private StringEncryptor encryptor;
 
     @PostConstruct
@@ -34,7 +37,8 @@ public class TokenEncryptionService {
         config.setPassword(encryptionPassword);
         config.setAlgorithm("PBEWithHMACSHA512AndAES_256");
         config.setKeyObtentionIterations(1000);
-        config.setPoolSize(1);
+        // Each pooled encryptor is synchronized internally; several keep concurrent requests off a single lock
+        config.setPoolSize(Math.max(1, poolSize));
         config.setProviderName("SunJCE");
         config.setSaltGeneratorClassName("org.jasypt.salt.RandomSaltGenerator");
         config.setIvGeneratorClassName("org.jasypt.iv.RandomIvGenerator");
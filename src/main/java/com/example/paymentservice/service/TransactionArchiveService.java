@@ -0,0 +1,152 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.config.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service to move posted transactions older than the retention horizon from the hot
+ * 'transactions' table into the compact 'transactions_archive' table.
+ * Rows move in bounded batches, each in its own short transaction, with DELETE ... RETURNING
+ * feeding the INSERT so a row is never visible in both tables. Spending rollups are not touched:
+ * archived rows still count towards them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionArchiveService {
+
+    private static final String REGISTER_MERCHANTS_SQL =
+            "INSERT INTO merchants (name) " +
+            "SELECT DISTINCT b.merchant_name FROM (" +
+            "  SELECT merchant_name FROM transactions WHERE date < ? AND NOT pending ORDER BY date LIMIT ?" +
+            ") b WHERE b.merchant_name IS NOT NULL " +
+            "ON CONFLICT (name) DO NOTHING";
+
+    private static final String MOVE_BATCH_SQL =
+            "WITH batch AS (" +
+            "  SELECT id, date FROM transactions WHERE date < ? AND NOT pending " +
+            "  ORDER BY date LIMIT ? FOR UPDATE SKIP LOCKED" +
+            "), moved AS (" +
+            "  DELETE FROM transactions t USING batch b WHERE t.id = b.id AND t.date = b.date " +
+            "  RETURNING t.id, t.user_id, t.plaid_transaction_id, t.account_id, t.amount, t.date, t.merchant_name, " +
+            "            t.category_key, t.name, t.payment_channel, t.iso_currency_code, t.unofficial_currency_code, " +
+            "            t.pending_transaction_id" +
+            // Merchants registered by a concurrent batch since the previous statement
+            "), new_merchants AS (" +
+            "  INSERT INTO merchants (name) SELECT DISTINCT merchant_name FROM moved WHERE merchant_name IS NOT NULL " +
+            "  ON CONFLICT (name) DO NOTHING RETURNING id, name" +
+            ") " +
+            "INSERT INTO transactions_archive (id, user_id, plaid_transaction_id, account_id, amount, date, " +
+            "    merchant_key, category_key, name, payment_channel, iso_currency_code, unofficial_currency_code, " +
+            "    pending_transaction_id) " +
+            "SELECT m.id, m.user_id, m.plaid_transaction_id, m.account_id, m.amount, m.date, " +
+            "       COALESCE(nm.id, em.id), m.category_key, m.name, m.payment_channel, m.iso_currency_code, " +
+            "       m.unofficial_currency_code, m.pending_transaction_id " +
+            "FROM moved m " +
+            "LEFT JOIN new_merchants nm ON nm.name = m.merchant_name " +
+            "LEFT JOIN merchants em ON em.name = m.merchant_name";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final TransactionColumnCache transactionColumnCache;
+
+    @Value("${app.transactions.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.transactions.archive.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${app.transactions.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.transactions.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    /**
+     * Archives transactions older than the horizon on every shard, if archival is enabled.
+     */
+    @Scheduled(cron = "${app.transactions.archive.cron:0 30 3 * * *}")
+    public void archiveOldTransactions() {
+        if (!enabled) {
+            return;
+        }
+        shardRouter.forEachShard(shard -> {
+            long moved = archiveBefore(horizon());
+            if (moved > 0) {
+                log.info("Archived {} transaction(s) older than {} on shard {}", moved, horizon(), shard);
+            }
+        });
+    }
+
+    /**
+     * Moves posted transactions dated before the cutoff into the archive table, batch by batch.
+     * Cached column snapshots still hold the moved rows, so they are dropped once anything moved.
+     *
+     * @param cutoff First date to keep in the hot table
+     * @return Number of archived rows
+     */
+    public long archiveBefore(LocalDate cutoff) {
+        long total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.update(REGISTER_MERCHANTS_SQL, cutoff, batchSize);
+                return jdbcTemplate.update(MOVE_BATCH_SQL, cutoff, batchSize);
+            });
+            int count = moved != null ? moved : 0;
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            transactionColumnCache.evictAll();
+        }
+        return total;
+    }
+
+    /**
+     * Date before which posted transactions may live in the archive table.
+     * Every archived row is dated before this day, whenever it was archived.
+     *
+     * @return The current archive horizon
+     */
+    public LocalDate horizon() {
+        return LocalDate.now().minusDays(horizonDays);
+    }
+
+    /**
+     * Returns which of the given Plaid transaction IDs of a user are already archived.
+     *
+     * @param userId The user ID
+     * @param plaidTransactionIds Plaid transaction IDs to check
+     * @return The archived subset
+     */
+    public Set<String> findArchivedIds(UUID userId, Collection<String> plaidTransactionIds) {
+        if (plaidTransactionIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT plaid_transaction_id FROM transactions_archive " +
+                "WHERE user_id = :userId AND plaid_transaction_id IN (:ids)",
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("ids", plaidTransactionIds),
+                String.class));
+    }
+}
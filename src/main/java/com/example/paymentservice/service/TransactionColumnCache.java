@@ -0,0 +1,197 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.repository.TransactionRepository;
+import com.example.paymentservice.repository.projection.TransactionRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory cache of per-user columnar transaction snapshots for dashboard analytics.
+ * Snapshots are loaded from the 'transactions' table on first use, patched when
+ * TransactionIngestionService commits a sync, and evicted least-recently-used first
+ * once the total estimated size exceeds app.cache.transactions.max-bytes.
+ * Only this instance's syncs are patched in, so every snapshot is reloaded once it is older than
+ * app.cache.transactions.ttl; that bounds how long changes made by another instance stay invisible.
+ * Archival drops all snapshots on the instance that ran it.
+ */
+@Slf4j
+@Service
+public class TransactionColumnCache {
+
+    private final TransactionRepository transactionRepository;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, UserTransactionColumns> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> snapshotBytes = new LinkedHashMap<>();
+    private final Map<String, Long> snapshotLoadedAt = new LinkedHashMap<>();
+    private long usedBytes;
+
+    // Bumped on every patch or eviction; a load that raced with one is served but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public TransactionColumnCache(TransactionRepository transactionRepository,
+                                  @Value("${app.cache.transactions.max-bytes:67108864}") long maxBytes,
+                                  @Value("${app.cache.transactions.ttl:5m}") Duration ttl) {
+        this(transactionRepository, maxBytes, ttl, System::nanoTime);
+    }
+
+    TransactionColumnCache(TransactionRepository transactionRepository, long maxBytes, Duration ttl,
+                           LongSupplier nanoTime) {
+        this.transactionRepository = transactionRepository;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Gets the columnar snapshot of a user's transactions, loading it if needed.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @return Snapshot sorted by date
+     */
+    public UserTransactionColumns get(String auth0UserId) {
+        lock.lock();
+        try {
+            UserTransactionColumns cached = snapshots.get(auth0UserId);
+            if (cached != null) {
+                if (nanoTime.getAsLong() - snapshotLoadedAt.get(auth0UserId) < ttlNanos) {
+                    return cached;
+                }
+                remove(auth0UserId);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Load outside the lock so one slow query does not block every other user
+        long loadGeneration = generation.get();
+        long loadedAt = nanoTime.getAsLong();
+        List<TransactionRow> rows = transactionRepository.findAllRowsByAuth0UserId(auth0UserId);
+        UserTransactionColumns loaded = UserTransactionColumns.of(rows);
+        log.debug("Loaded {} transaction(s) into column cache for user: {}", loaded.size(), auth0UserId);
+
+        lock.lock();
+        try {
+            UserTransactionColumns existing = snapshots.get(auth0UserId);
+            if (existing != null) {
+                return existing;
+            }
+            if (generation.get() == loadGeneration) {
+                put(auth0UserId, loaded, loadedAt);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return loaded;
+    }
+
+    /**
+     * Applies a committed sync to a cached snapshot. Users that are not cached are left alone
+     * and will be loaded fresh on their next read. Patching does not extend the snapshot's TTL.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param upserts Rows that were added or modified
+     * @param removedPlaidIds Plaid IDs of rows that were deleted
+     */
+    public void applySync(String auth0UserId, Collection<TransactionRow> upserts, Collection<String> removedPlaidIds) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            UserTransactionColumns cached = snapshots.get(auth0UserId);
+            if (cached != null) {
+                put(auth0UserId, cached.patched(upserts, removedPlaidIds), snapshotLoadedAt.get(auth0UserId));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops a user's snapshot.
+     *
+     * @param auth0UserId The Auth0 user ID
+     */
+    public void evict(String auth0UserId) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            remove(auth0UserId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every snapshot, for changes that touch many users at once such as archival.
+     */
+    public void evictAll() {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            snapshots.clear();
+            snapshotBytes.clear();
+            snapshotLoadedAt.clear();
+            usedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Total estimated size of all cached snapshots in bytes
+     */
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String auth0UserId, UserTransactionColumns columns, long loadedAt) {
+        remove(auth0UserId);
+        long bytes = columns.estimatedBytes();
+        if (bytes > maxBytes) {
+            log.warn("Transaction snapshot for user {} ({} bytes) exceeds cache budget, not caching", auth0UserId, bytes);
+            return;
+        }
+        snapshots.put(auth0UserId, columns);
+        snapshotBytes.put(auth0UserId, bytes);
+        snapshotLoadedAt.put(auth0UserId, loadedAt);
+        usedBytes += bytes;
+
+        // Access-ordered map: iteration starts at the least recently used user
+        Iterator<Map.Entry<String, UserTransactionColumns>> eldest = snapshots.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            String evicted = eldest.next().getKey();
+            eldest.remove();
+            usedBytes -= snapshotBytes.remove(evicted);
+            snapshotLoadedAt.remove(evicted);
+            log.debug("Evicted transaction snapshot for user: {}", evicted);
+        }
+    }
+
+    private void remove(String auth0UserId) {
+        if (snapshots.remove(auth0UserId) != null) {
+            usedBytes -= snapshotBytes.remove(auth0UserId);
+            snapshotLoadedAt.remove(auth0UserId);
+        }
+    }
+}
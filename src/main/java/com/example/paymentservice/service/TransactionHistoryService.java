@@ -0,0 +1,39 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.repository.TransactionRepository;
+import com.example.paymentservice.repository.projection.TransactionRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service to read stored transaction history.
+ * Uses TransactionRow projections so large pages do not hydrate Transaction entities.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Gets a page of stored transactions for a user, newest first.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param page Zero-based page number
+     * @param size Page size (capped at 500)
+     * @return Slice of transaction rows
+     */
+    @Transactional(readOnly = true)
+    public Slice<TransactionRow> getHistory(String auth0UserId, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        log.debug("Reading transaction history for user: {} (page: {}, size: {})", auth0UserId, page, pageSize);
+        return transactionRepository.findRowsByAuth0UserId(auth0UserId, PageRequest.of(Math.max(page, 0), pageSize));
+    }
+}
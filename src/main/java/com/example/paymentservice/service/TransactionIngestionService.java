@@ -0,0 +1,320 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.plaid.TransactionsGetResponse;
+import com.example.paymentservice.entity.SpendingRollup;
+import com.example.paymentservice.entity.SpendingRollupId;
+import com.example.paymentservice.entity.Transaction;
+import com.example.paymentservice.entity.User;
+import com.example.paymentservice.repository.SpendingRollupRepository;
+import com.example.paymentservice.repository.TransactionRepository;
+import com.example.paymentservice.repository.UserRepository;
+import com.example.paymentservice.repository.projection.TransactionRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Service to persist Plaid transactions into the 'transactions' table.
+ * Pending rows that Plaid has since posted under a new ID are reconciled away, and spending
+ * rollups are updated in the same database transaction, with deltas applied for added,
+ * modified and removed rows. The columnar analytics cache is patched once the transaction commits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionIngestionService {
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final SpendingRollupRepository spendingRollupRepository;
+    private final TransactionColumnCache transactionColumnCache;
+    private final CategoryDictionary categoryDictionary;
+    private final PendingTransactionReconciler pendingTransactionReconciler;
+    private final TransactionArchiveService transactionArchiveService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Stores the transactions Plaid returned for a date window.
+     * Rows stored for the window that Plaid no longer returns are treated as removed,
+     * but only when the response is complete (Plaid paginates /transactions/get) and only
+     * for the accounts the response covers, since a response describes a single item.
+     * Ingestions of the same user run one at a time: a Plaid transaction ID is only unique per
+     * date in the partitioned table, so existing rows are matched by ID across dates under the lock.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param startDate Start of the fetched window (inclusive)
+     * @param endDate End of the fetched window (inclusive)
+     * @param response The Plaid transactions response for that window
+     */
+    public void ingestTransactions(String auth0UserId, LocalDate startDate, LocalDate endDate,
+                                   TransactionsGetResponse response) {
+        // Categories are interned in their own transactions, before the ingestion transaction holds a connection
+        if (response != null && response.getTransactions() != null) {
+            response.getTransactions().forEach(this::internCategory);
+        }
+        transactionTemplate.executeWithoutResult(status -> ingest(auth0UserId, startDate, endDate, response));
+    }
+
+    private void ingest(String auth0UserId, LocalDate startDate, LocalDate endDate, TransactionsGetResponse response) {
+        Optional<User> userOpt = userRepository.findByAuth0UserId(auth0UserId);
+        if (userOpt.isEmpty() || response == null) {
+            log.debug("Skipping transaction ingestion for user: {}", auth0UserId);
+            return;
+        }
+
+        User user = userOpt.get();
+        transactionRepository.lockUserForIngestion(user.getId());
+        List<TransactionsGetResponse.Transaction> fetched = response.getTransactions() != null
+                ? response.getTransactions()
+                : List.of();
+
+        // Load what we already have for the window, plus fetched rows whose date moved out of it
+        Map<String, Transaction> inWindow = new HashMap<>();
+        for (Transaction existing : transactionRepository.findByUserAndDateBetween(user, startDate, endDate)) {
+            inWindow.put(existing.getPlaidTransactionId(), existing);
+        }
+        Map<String, Transaction> existingById = new HashMap<>(inWindow);
+        Set<String> fetchedIds = new HashSet<>();
+        for (TransactionsGetResponse.Transaction plaidTransaction : fetched) {
+            if (plaidTransaction.getTransactionId() != null) {
+                fetchedIds.add(plaidTransaction.getTransactionId());
+            }
+        }
+        Set<String> archivedIds = findArchivedIds(user, fetched);
+        Set<String> unknownIds = new HashSet<>(fetchedIds);
+        unknownIds.removeAll(existingById.keySet());
+        if (!unknownIds.isEmpty()) {
+            for (Transaction existing : transactionRepository.findByPlaidTransactionIdIn(unknownIds)) {
+                if (user.getId().equals(existing.getUser().getId())) {
+                    existingById.put(existing.getPlaidTransactionId(), existing);
+                }
+            }
+        }
+
+        RollupDeltas deltas = new RollupDeltas(user.getId());
+        List<Transaction> toSave = new ArrayList<>();
+        int added = 0;
+        int modified = 0;
+
+        for (TransactionsGetResponse.Transaction plaidTransaction : fetched) {
+            if (plaidTransaction.getTransactionId() == null || plaidTransaction.getAmount() == null
+                    || plaidTransaction.getDate() == null
+                    || archivedIds.contains(plaidTransaction.getTransactionId())) {
+                continue;
+            }
+
+            Transaction incoming = Transaction.builder()
+                    .user(user)
+                    .plaidTransactionId(plaidTransaction.getTransactionId())
+                    .build();
+            applyPlaidFields(incoming, plaidTransaction);
+
+            Transaction existing = existingById.get(plaidTransaction.getTransactionId());
+            if (existing == null) {
+                toSave.add(incoming);
+                deltas.add(incoming);
+                added++;
+            } else if (hasChanged(existing, incoming)) {
+                deltas.remove(existing);
+                applyPlaidFields(existing, plaidTransaction);
+                deltas.add(existing);
+                toSave.add(existing);
+                modified++;
+            }
+        }
+
+        List<Transaction> removed = new ArrayList<>();
+        boolean complete = response.getTotalTransactions() == null
+                || fetched.size() >= response.getTotalTransactions();
+        if (complete) {
+            Set<String> coveredAccountIds = coveredAccountIds(response, fetched);
+            for (Transaction existing : inWindow.values()) {
+                if (coveredAccountIds.contains(existing.getAccountId())
+                        && !fetchedIds.contains(existing.getPlaidTransactionId())) {
+                    removed.add(existing);
+                    deltas.remove(existing);
+                }
+            }
+        } else {
+            log.debug("Partial Plaid response ({} of {}), skipping removal detection for user: {}",
+                    fetched.size(), response.getTotalTransactions(), auth0UserId);
+        }
+
+        transactionRepository.saveAll(toSave);
+        transactionRepository.deleteAll(removed);
+        // Reconciliation and min/max recomputation read the transactions table, so pending changes must be visible
+        transactionRepository.flush();
+
+        List<Transaction> replacedPending = pendingTransactionReconciler.reconcile(user.getId(), fetchedIds);
+        replacedPending.forEach(deltas::remove);
+        removed.addAll(replacedPending);
+
+        deltas.applyTo(spendingRollupRepository);
+        patchCacheAfterCommit(auth0UserId, toSave, removed);
+
+        log.info("Ingested transactions for user: {} (added: {}, modified: {}, removed: {}, pending replaced: {})",
+                auth0UserId, added, modified, removed.size() - replacedPending.size(), replacedPending.size());
+    }
+
+    /**
+     * Accounts a response speaks for: the accounts Plaid listed, plus any account a fetched row belongs to.
+     * Rows of the user's other items are outside the response and must not be taken as removed.
+     */
+    private Set<String> coveredAccountIds(TransactionsGetResponse response,
+                                          List<TransactionsGetResponse.Transaction> fetched) {
+        Set<String> accountIds = new HashSet<>();
+        if (response.getAccounts() != null) {
+            for (TransactionsGetResponse.Account account : response.getAccounts()) {
+                if (account.getAccountId() != null) {
+                    accountIds.add(account.getAccountId());
+                }
+            }
+        }
+        for (TransactionsGetResponse.Transaction plaidTransaction : fetched) {
+            if (plaidTransaction.getAccountId() != null) {
+                accountIds.add(plaidTransaction.getAccountId());
+            }
+        }
+        return accountIds;
+    }
+
+    /**
+     * Archived rows are immutable history; Plaid re-sending them must not re-insert them into the hot table.
+     */
+    private Set<String> findArchivedIds(User user, List<TransactionsGetResponse.Transaction> fetched) {
+        String horizon = transactionArchiveService.horizon().toString();
+        List<String> candidates = fetched.stream()
+                .filter(t -> t.getTransactionId() != null && t.getDate() != null && t.getDate().compareTo(horizon) < 0)
+                .map(TransactionsGetResponse.Transaction::getTransactionId)
+                .toList();
+        return transactionArchiveService.findArchivedIds(user.getId(), candidates);
+    }
+
+    private void patchCacheAfterCommit(String auth0UserId, List<Transaction> upserted, List<Transaction> removed) {
+        if (upserted.isEmpty() && removed.isEmpty()) {
+            return;
+        }
+        List<TransactionRow> upsertRows = upserted.stream()
+                .map(t -> new TransactionRow(t.getPlaidTransactionId(), t.getAccountId(), t.getAmount(), t.getDate(),
+                        t.getName(), t.getMerchantName(), categoryDictionary.path(t.getCategoryKey()), t.getPending()))
+                .toList();
+        List<String> removedIds = removed.stream().map(Transaction::getPlaidTransactionId).toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                transactionColumnCache.applySync(auth0UserId, upsertRows, removedIds);
+            }
+        });
+    }
+
+    private void applyPlaidFields(Transaction target, TransactionsGetResponse.Transaction source) {
+        target.setAccountId(source.getAccountId());
+        target.setAmount(BigDecimal.valueOf(source.getAmount()));
+        target.setDate(LocalDate.parse(source.getDate()));
+        target.setMerchantName(truncate(source.getMerchantName(), 255));
+        target.setCategoryKey(internCategory(source));
+        target.setName(truncate(source.getName(), 500));
+        target.setPaymentChannel(truncate(source.getPaymentChannel(), 50));
+        target.setPending(Boolean.TRUE.equals(source.getPending()));
+        // Keep a link inferred during reconciliation when Plaid does not send one
+        if (source.getPendingTransactionId() != null) {
+            target.setPendingTransactionId(truncate(source.getPendingTransactionId(), 255));
+        }
+        target.setIsoCurrencyCode(source.getIsoCurrencyCode());
+        target.setUnofficialCurrencyCode(source.getUnofficialCurrencyCode());
+    }
+
+    private Short internCategory(TransactionsGetResponse.Transaction source) {
+        return categoryDictionary.intern(source.getCategory(), truncate(source.getCategoryId(), 100));
+    }
+
+    private boolean hasChanged(Transaction existing, Transaction incoming) {
+        return existing.getAmount().compareTo(incoming.getAmount()) != 0
+                || !Objects.equals(existing.getDate(), incoming.getDate())
+                || !Objects.equals(existing.getAccountId(), incoming.getAccountId())
+                || !Objects.equals(existing.getMerchantName(), incoming.getMerchantName())
+                || !Objects.equals(existing.getCategoryKey(), incoming.getCategoryKey())
+                || !Objects.equals(existing.getName(), incoming.getName())
+                || !Objects.equals(existing.getPaymentChannel(), incoming.getPaymentChannel())
+                || !Objects.equals(existing.getPending(), incoming.getPending())
+                || (incoming.getPendingTransactionId() != null
+                        && !incoming.getPendingTransactionId().equals(existing.getPendingTransactionId()))
+                || !Objects.equals(existing.getIsoCurrencyCode(), incoming.getIsoCurrencyCode())
+                || !Objects.equals(existing.getUnofficialCurrencyCode(), incoming.getUnofficialCurrencyCode());
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    /**
+     * Accumulates rollup changes per (category, month) so each group costs one statement.
+     */
+    private static final class RollupDeltas {
+        private final UUID userId;
+        private final Map<SpendingRollupId, Delta> added = new HashMap<>();
+        private final Map<SpendingRollupId, Delta> removed = new HashMap<>();
+
+        RollupDeltas(UUID userId) {
+            this.userId = userId;
+        }
+
+        void add(Transaction transaction) {
+            added.computeIfAbsent(keyOf(transaction), key -> new Delta()).accept(transaction.getAmount());
+        }
+
+        void remove(Transaction transaction) {
+            removed.computeIfAbsent(keyOf(transaction), key -> new Delta()).accept(transaction.getAmount());
+        }
+
+        void applyTo(SpendingRollupRepository repository) {
+            removed.forEach((key, delta) -> repository.subtractFromRollup(
+                    userId, key.getCategoryKey(), key.getMonth(), delta.total, delta.count));
+            added.forEach((key, delta) -> repository.addToRollup(
+                    userId, key.getCategoryKey(), key.getMonth(), delta.total, delta.count, delta.min, delta.max));
+            // Min/max cannot be decremented, so groups that lost rows are recomputed from the month's rows
+            removed.keySet().forEach(key -> repository.recomputeMinMax(userId, key.getCategoryKey(), key.getMonth()));
+            if (!removed.isEmpty()) {
+                repository.deleteEmptyRollups(userId);
+            }
+        }
+
+        private SpendingRollupId keyOf(Transaction transaction) {
+            return SpendingRollupId.builder()
+                    .userId(userId)
+                    .categoryKey(transaction.getCategoryKey() != null
+                            ? transaction.getCategoryKey() : SpendingRollup.UNCATEGORIZED_KEY)
+                    .month(transaction.getDate().withDayOfMonth(1))
+                    .build();
+        }
+    }
+
+    private static final class Delta {
+        private BigDecimal total = BigDecimal.ZERO;
+        private long count;
+        private BigDecimal min;
+        private BigDecimal max;
+
+        void accept(BigDecimal amount) {
+            total = total.add(amount);
+            count++;
+            min = min == null || amount.compareTo(min) < 0 ? amount : min;
+            max = max == null || amount.compareTo(max) > 0 ? amount : max;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.config.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service to maintain the monthly partitions of the 'transactions' table.
+ * Future partitions are created ahead of time so inserts never land in the default partition,
+ * and old partitions can be detached (a catalog-only operation) once they are no longer needed.
+ * Spending rollups and search still count every row of a detached partition, so a partition is
+ * detached only once archival has moved all of its rows into 'transactions_archive'.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionPartitionService {
+
+    private static final String PARTITION_PREFIX = "transactions_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final TransactionArchiveService transactionArchiveService;
+
+    @Value("${app.transactions.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.transactions.partitions.detach-after-months:0}")
+    private int detachAfterMonths;
+
+    @Value("${app.transactions.partitions.lock-timeout:5s}")
+    private String lockTimeout;
+
+    /**
+     * Creates missing partitions up to the configured number of months ahead and,
+     * if enabled, detaches partitions older than the retention window, on every shard.
+     */
+    @Scheduled(cron = "${app.transactions.partitions.maintenance-cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        shardRouter.forEachShard(shard -> {
+            ensureFuturePartitions();
+            if (detachAfterMonths > 0) {
+                detachPartitionsBefore(YearMonth.now().minusMonths(detachAfterMonths));
+            }
+        });
+    }
+
+    /**
+     * Creates monthly partitions from the current month up to months-ahead months in the future.
+     *
+     * @return Number of partitions created
+     */
+    public int ensureFuturePartitions() {
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT ensure_transactions_partitions(CAST(? AS DATE), ?)",
+                Integer.class, LocalDate.now(), monthsAhead);
+        if (created != null && created > 0) {
+            log.info("Created {} transaction partition(s)", created);
+        }
+        return created != null ? created : 0;
+    }
+
+    /**
+     * Detaches every monthly partition that ends before the given month and is empty.
+     * Posted rows older than both the cutoff and the archive horizon are archived first; a partition
+     * that still holds rows afterwards (pending rows, rows newer than the horizon, or archival not yet
+     * caught up) stays attached and is retried on the next run.
+     * Detached partitions stay in the database as standalone tables and can be dropped
+     * without touching the live table.
+     *
+     * @param cutoff First month to keep attached
+     * @return Names of the detached partitions
+     */
+    public List<String> detachPartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'transactions'::regclass AND c.relname LIKE 'transactions\\_p%' ORDER BY c.relname",
+                String.class);
+
+        String cutoffName = PARTITION_PREFIX + cutoff.format(PARTITION_SUFFIX);
+        List<String> candidates = partitions.stream()
+                .filter(name -> name.compareTo(cutoffName) < 0)
+                .toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDate horizon = transactionArchiveService.horizon();
+        LocalDate archiveCutoff = cutoff.atDay(1).isBefore(horizon) ? cutoff.atDay(1) : horizon;
+        transactionArchiveService.archiveBefore(archiveCutoff);
+
+        List<String> detached = new ArrayList<>();
+        for (String partition : candidates) {
+            // DETACH ... CONCURRENTLY is not allowed while a default partition exists, so use a
+            // short lock timeout instead of queueing behind long-running queries on the parent.
+            // The emptiness check runs under the detach lock, so no insert can land in between.
+            Boolean empty = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout.replace("'", "") + "'");
+                jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + partition);
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class))) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(empty)) {
+                log.warn("Not detaching transaction partition {}: it still holds rows that are not archived", partition);
+                continue;
+            }
+            detached.add(partition);
+            log.info("Detached transaction partition: {}", partition);
+        }
+        return detached;
+    }
+}
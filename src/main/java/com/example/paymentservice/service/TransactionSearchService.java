@@ -0,0 +1,170 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.TransactionSearchResponse;
+import com.example.paymentservice.entity.User;
+import com.example.paymentservice.repository.UserRepository;
+import com.example.paymentservice.repository.projection.TransactionRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service to search a user's stored transactions by merchant and name, hot and archived alike.
+ * Combines the full-text search_vector column (prefix matching) with pg_trgm similarity
+ * (typo tolerance), ranks the union and pages it with a keyset cursor on (score, date, id).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionSearchService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private static final String SEARCH_SQL =
+            "WITH q AS (SELECT to_tsquery('simple', :tsQuery) AS query), " +
+            "matches AS (" +
+            "  SELECT t.id, t.plaid_transaction_id, t.account_id, t.amount, t.date, t.name, t.merchant_name, " +
+            "         t.category_key, t.pending, " +
+            "         CAST(ts_rank(t.search_vector, q.query) + GREATEST(" +
+            "             COALESCE(similarity(t.merchant_name, :term), 0), " +
+            "             COALESCE(similarity(t.name, :term), 0)) AS REAL) AS score " +
+            "  FROM transactions t, q " +
+            "  WHERE t.user_id = :userId " +
+            "    AND (t.search_vector @@ q.query OR t.merchant_name % :term OR t.name % :term)" +
+            "  UNION ALL " +
+            // Archived merchants are dictionary-encoded: match the dictionary first, then the user's rows by key
+            "  SELECT a.id, a.plaid_transaction_id, a.account_id, a.amount, a.date, a.name, m.name, " +
+            "         a.category_key, FALSE, " +
+            "         CAST(ts_rank(to_tsvector('simple', COALESCE(m.name, '')) || a.search_vector, q.query) + GREATEST(" +
+            "             COALESCE(similarity(m.name, :term), 0), " +
+            "             COALESCE(similarity(a.name, :term), 0)) AS REAL) " +
+            "  FROM transactions_archive a CROSS JOIN q LEFT JOIN merchants m ON m.id = a.merchant_key " +
+            "  WHERE a.user_id = :userId " +
+            "    AND (a.search_vector @@ q.query OR a.name % :term OR a.merchant_key IN (" +
+            "         SELECT dm.id FROM merchants dm " +
+            "         WHERE to_tsvector('simple', dm.name) @@ q.query OR dm.name % :term))" +
+            ") " +
+            "SELECT m.*, c.path AS category FROM matches m LEFT JOIN categories c ON c.id = m.category_key ";
+
+    private static final String AFTER_CURSOR =
+            "WHERE (m.score, m.date, m.id) < (CAST(:afterScore AS REAL), CAST(:afterDate AS DATE), CAST(:afterId AS UUID)) ";
+
+    private static final String ORDER_AND_LIMIT = "ORDER BY m.score DESC, m.date DESC, m.id DESC LIMIT :limit";
+
+    private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Searches a user's transactions.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param term Free-text search term, e.g. "starbucks"
+     * @param cursor Cursor from a previous page, or null for the first page
+     * @param limit Maximum number of results (capped at 100)
+     * @return Ranked results and the cursor of the next page (null when there is none)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public TransactionSearchResponse search(String auth0UserId, String term, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String tsQuery = toPrefixTsQuery(term);
+
+        Optional<User> userOpt = userRepository.findByAuth0UserId(auth0UserId);
+        if (userOpt.isEmpty() || tsQuery.isEmpty()) {
+            return TransactionSearchResponse.builder().query(term).results(List.of()).build();
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("tsQuery", tsQuery)
+                .addValue("term", term.trim().toLowerCase())
+                .addValue("userId", userOpt.get().getId())
+                .addValue("limit", pageSize + 1);
+
+        String sql = SEARCH_SQL;
+        if (cursor != null && !cursor.isEmpty()) {
+            SearchCursor after = SearchCursor.decode(cursor);
+            params.addValue("afterScore", after.score())
+                    .addValue("afterDate", after.date())
+                    .addValue("afterId", after.id());
+            sql += AFTER_CURSOR;
+        }
+        sql += ORDER_AND_LIMIT;
+
+        List<SearchCursor> cursors = new ArrayList<>();
+        List<TransactionRow> results = namedParameterJdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            LocalDate date = rs.getObject("date", LocalDate.class);
+            cursors.add(new SearchCursor(rs.getFloat("score"), date, rs.getObject("id", UUID.class)));
+            return new TransactionRow(
+                    rs.getString("plaid_transaction_id"),
+                    rs.getString("account_id"),
+                    rs.getBigDecimal("amount"),
+                    date,
+                    rs.getString("name"),
+                    rs.getString("merchant_name"),
+                    rs.getString("category"),
+                    rs.getBoolean("pending"));
+        });
+
+        String nextCursor = null;
+        if (results.size() > pageSize) {
+            results = results.subList(0, pageSize);
+            nextCursor = cursors.get(pageSize - 1).encode();
+        }
+
+        log.debug("Search '{}' for user {} returned {} result(s)", term, auth0UserId, results.size());
+        return TransactionSearchResponse.builder()
+                .query(term)
+                .results(results)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Turns free text into a prefix tsquery: "starb coffee" becomes "starb:* & coffee:*".
+     * Everything except letters and digits is dropped, so user input cannot inject tsquery syntax.
+     */
+    private String toPrefixTsQuery(String term) {
+        if (term == null) {
+            return "";
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : term.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token + ":*");
+            }
+        }
+        return String.join(" & ", tokens);
+    }
+
+    /**
+     * Keyset position of the last row of a page.
+     */
+    private record SearchCursor(float score, LocalDate date, UUID id) {
+
+        String encode() {
+            String raw = score + "|" + date + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SearchCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                return new SearchCursor(Float.parseFloat(parts[0]), LocalDate.parse(parts[1]), UUID.fromString(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.UserAccountsResponse;
+import com.example.paymentservice.dto.UserDashboardResponse;
+import com.example.paymentservice.dto.plaid.AccountsGetResponse;
+import com.example.paymentservice.dto.plaid.TransactionsGetResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Builds the combined accounts and transactions view of a user.
+ * Tokens are loaded and decrypted once; then every item's accounts and transactions are fetched from
+ * Plaid concurrently, so the whole dashboard costs about one Plaid round trip. The transactions response
+ * also supplies item logos, which /api/user/accounts fetches separately.
+ */
+@Slf4j
+@Service
+public class UserDashboardService {
+
+    private final UserPlaidTokenService userPlaidTokenService;
+    private final PlaidService plaidService;
+    private final TransactionIngestionService transactionIngestionService;
+    private final AsyncTaskExecutor executor;
+
+    @Value("${app.features.enable-reports:false}")
+    private Boolean enableReports;
+
+    public UserDashboardService(UserPlaidTokenService userPlaidTokenService,
+                                PlaidService plaidService,
+                                TransactionIngestionService transactionIngestionService,
+                                @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor) {
+        this.userPlaidTokenService = userPlaidTokenService;
+        this.plaidService = plaidService;
+        this.transactionIngestionService = transactionIngestionService;
+        this.executor = executor;
+    }
+
+    /**
+     * Fetches the dashboard for a validated user. Items whose Plaid calls fail are left out.
+     *
+     * @param auth0UserId The Auth0 user ID
+     * @param startDate Start of the transactions window (inclusive)
+     * @param endDate End of the transactions window (inclusive)
+     */
+    public UserDashboardResponse getDashboard(String auth0UserId, LocalDate startDate, LocalDate endDate) {
+        List<String> plaidTokens = userPlaidTokenService.getAllPlaidAccessTokensForUser(auth0UserId);
+        log.info("Fetching dashboard for user {} from {} item(s)", auth0UserId, plaidTokens.size());
+
+        // Fan out: both calls of every item in flight at once
+        List<CompletableFuture<AccountsGetResponse>> accountsFutures = new ArrayList<>(plaidTokens.size());
+        List<CompletableFuture<TransactionsGetResponse>> transactionsFutures = new ArrayList<>(plaidTokens.size());
+        for (String plaidToken : plaidTokens) {
+            accountsFutures.add(CompletableFuture.supplyAsync(
+                    () -> plaidService.getAccounts(plaidToken), executor));
+            transactionsFutures.add(CompletableFuture.supplyAsync(
+                    () -> plaidService.getTransactions(plaidToken, startDate, endDate), executor));
+        }
+
+        List<AccountsGetResponse> accountsResponses = new ArrayList<>();
+        List<TransactionsGetResponse.Transaction> transactions = new ArrayList<>();
+        List<TransactionsGetResponse.Account> transactionAccounts = new ArrayList<>();
+        Map<String, String> logoUrls = new HashMap<>();
+        boolean allTransactionsFetched = true;
+        int totalTransactions = 0;
+        for (int i = 0; i < plaidTokens.size(); i++) {
+            AccountsGetResponse accountsResponse = join(accountsFutures.get(i), "accounts");
+            if (accountsResponse != null) {
+                accountsResponses.add(accountsResponse);
+            }
+            TransactionsGetResponse transactionsResponse = join(transactionsFutures.get(i), "transactions");
+            if (transactionsResponse == null) {
+                allTransactionsFetched = false;
+                continue;
+            }
+            int fetchedCount = transactionsResponse.getTransactions() != null
+                    ? transactionsResponse.getTransactions().size()
+                    : 0;
+            if (transactionsResponse.getTransactions() != null) {
+                transactions.addAll(transactionsResponse.getTransactions());
+            }
+            if (transactionsResponse.getAccounts() != null) {
+                transactionAccounts.addAll(transactionsResponse.getAccounts());
+            }
+            // Plaid paginates /transactions/get per item; a single truncated item makes the whole view partial
+            Integer itemTotal = transactionsResponse.getTotalTransactions();
+            if (itemTotal != null && fetchedCount < itemTotal) {
+                allTransactionsFetched = false;
+            }
+            totalTransactions += itemTotal != null ? Math.max(itemTotal, fetchedCount) : fetchedCount;
+            TransactionsGetResponse.Item item = transactionsResponse.getItem();
+            if (item != null && item.getItemId() != null && item.getLogoUrl() != null && !item.getLogoUrl().isEmpty()) {
+                logoUrls.put(item.getItemId(), item.getLogoUrl());
+            }
+        }
+        transactions.sort(Comparator.comparing(TransactionsGetResponse.Transaction::getDate,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+
+        // Ingestion treats stored rows missing from the response as removed, so only ingest when every item is complete
+        if (Boolean.TRUE.equals(enableReports) && allTransactionsFetched && !plaidTokens.isEmpty()) {
+            try {
+                TransactionsGetResponse combined = new TransactionsGetResponse();
+                combined.setTransactions(transactions);
+                combined.setAccounts(transactionAccounts);
+                combined.setTotalTransactions(totalTransactions);
+                transactionIngestionService.ingestTransactions(auth0UserId, startDate, endDate, combined);
+            } catch (Exception e) {
+                // Reporting is best-effort; never fail the read because of it
+                log.warn("Failed to ingest transactions for user {}: {}", auth0UserId, e.getMessage());
+            }
+        }
+
+        return UserDashboardResponse.of(UserAccountsResponse.from(accountsResponses, logoUrls),
+                transactions, startDate.toString(), endDate.toString());
+    }
+
+    private static <T> T join(CompletableFuture<T> future, String what) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("Failed to fetch {} for one item: {}", what, cause.getMessage());
+            return null;
+        }
+    }
+}
@@ -4,11 +4,13 @@ import com.example.paymentservice.entity.PlaidAccessToken;
 import com.example.paymentservice.entity.User;
 import com.example.paymentservice.repository.PlaidAccessTokenRepository;
 import com.example.paymentservice.repository.UserRepository;
+import com.example.paymentservice.repository.projection.PlaidTokenRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,40 +31,43 @@ public class UserPlaidTokenService {
     private final UserRepository userRepository;
     private final PlaidAccessTokenRepository plaidAccessTokenRepository;
     private final TokenEncryptionService tokenEncryptionService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${plaid.default-access-token:}")
     private String defaultPlaidAccessToken;
 
     /**
      * Gets all Plaid access tokens for a given Auth0 user ID.
+     * Not transactional: the encrypted tokens come back in one query, and decryption happens
+     * after the connection has been returned to the pool.
      * 
      * @param auth0UserId The Auth0 user ID (sub claim)
      * @return List of Plaid access tokens (decrypted)
      */
-    @Transactional(readOnly = true)
     public List<String> getAllPlaidAccessTokensForUser(String auth0UserId) {
         log.info("Getting all Plaid access tokens for user: {}", auth0UserId);
         
-        // Find user by Auth0 user ID
-        Optional<User> userOpt = userRepository.findByAuth0UserId(auth0UserId);
-        if (userOpt.isEmpty()) {
-            log.debug("User not found in database for Auth0 ID: {}", auth0UserId);
-            return List.of();
-        }
-        
-        User user = userOpt.get();
-        
-        // Find all Plaid access tokens for this user
-        List<PlaidAccessToken> tokens = plaidAccessTokenRepository.findByUser(user);
-        
-        log.info("Found {} Plaid token(s) in database for user: {}", tokens.size(), auth0UserId);
+        List<PlaidTokenRow> rows = getPlaidTokenRowsForUser(auth0UserId);
         
         // Decrypt tokens before returning
-        return tokens.stream()
-                .map(token -> tokenEncryptionService.decrypt(token.getAccessTokenEncrypted()))
+        return rows.stream()
+                .map(row -> tokenEncryptionService.decrypt(row.accessTokenEncrypted()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Gets the item ID, institution ID and still-encrypted token of every Plaid item of a user, oldest first.
+     * A single projection query; no User or PlaidAccessToken entity is loaded.
+     * 
+     * @param auth0UserId The Auth0 user ID (sub claim)
+     * @return Token rows, empty if the user is unknown or has no tokens
+     */
+    public List<PlaidTokenRow> getPlaidTokenRowsForUser(String auth0UserId) {
+        List<PlaidTokenRow> rows = plaidAccessTokenRepository.findTokenRowsByAuth0UserId(auth0UserId);
+        log.info("Found {} Plaid token(s) in database for user: {}", rows.size(), auth0UserId);
+        return rows;
+    }
+
     /**
      * Gets the first Plaid access token for a given Auth0 user ID.
      * This is for backward compatibility with existing code.
@@ -70,7 +75,6 @@ public class UserPlaidTokenService {
      * @param auth0UserId The Auth0 user ID (sub claim)
      * @return First Plaid access token if found, otherwise returns default or empty
      */
-    @Transactional(readOnly = true)
     public Optional<String> getPlaidAccessTokenForUser(String auth0UserId) {
         List<String> tokens = getAllPlaidAccessTokensForUser(auth0UserId);
         
@@ -86,33 +90,22 @@ public class UserPlaidTokenService {
 
     /**
      * Gets a specific Plaid access token by item ID for a given Auth0 user ID.
+     * Not transactional, for the same reason as {@link #getAllPlaidAccessTokensForUser(String)}.
      * 
      * @param auth0UserId The Auth0 user ID (sub claim)
      * @param itemId The Plaid item ID
      * @return Plaid access token if found, otherwise returns empty
      */
-    @Transactional(readOnly = true)
     public Optional<String> getPlaidAccessTokenForUserAndItem(String auth0UserId, String itemId) {
         log.info("Getting Plaid access token for user: {} and item: {}", auth0UserId, itemId);
         
-        // Find user by Auth0 user ID
-        Optional<User> userOpt = userRepository.findByAuth0UserId(auth0UserId);
-        if (userOpt.isEmpty()) {
-            log.debug("User not found in database for Auth0 ID: {}", auth0UserId);
-            return Optional.empty();
-        }
+        Optional<String> encryptedToken =
+                plaidAccessTokenRepository.findEncryptedAccessTokenByAuth0UserIdAndItemId(auth0UserId, itemId);
         
-        User user = userOpt.get();
-        
-        // Find specific Plaid access token by item ID
-        Optional<PlaidAccessToken> plaidTokenOpt = plaidAccessTokenRepository.findByUserAndItemId(user, itemId);
-        
-        if (plaidTokenOpt.isPresent()) {
-            PlaidAccessToken plaidToken = plaidTokenOpt.get();
+        if (encryptedToken.isPresent()) {
             log.info("Found Plaid token for user: {} and item: {}", auth0UserId, itemId);
             // Decrypt token before returning
-            String decryptedToken = tokenEncryptionService.decrypt(plaidToken.getAccessTokenEncrypted());
-            return Optional.of(decryptedToken);
+            return encryptedToken.map(tokenEncryptionService::decrypt);
         }
         
         log.debug("No Plaid token found for user: {} and item: {}", auth0UserId, itemId);
@@ -128,7 +121,6 @@ public class UserPlaidTokenService {
      * @param itemId The Plaid item ID (required)
      * @throws IllegalArgumentException if itemId is null or empty
      */
-    @Transactional
     public void storePlaidTokenForUser(String auth0UserId, String plaidAccessToken, String itemId) {
         storePlaidTokenForUser(auth0UserId, plaidAccessToken, itemId, null, null, null, null);
     }
@@ -136,6 +128,7 @@ public class UserPlaidTokenService {
 
     /**
      * Stores a Plaid access token with additional Plaid metadata.
+     * The token is encrypted before the transaction starts, so no connection is held during encryption.
      * 
      * @param auth0UserId The Auth0 user ID
      * @param plaidAccessToken The Plaid access token
@@ -145,37 +138,11 @@ public class UserPlaidTokenService {
      * @param email Optional email address
      * @param name Optional user name
      */
-    @Transactional
     public void storePlaidTokenForUser(String auth0UserId, String plaidAccessToken,
                                        String itemId, String institutionId, String institutionName,
                                        String email, String name) {
         log.info("Storing Plaid token with metadata for user: {}", auth0UserId);
         
-        // Find or create user
-        User user = userRepository.findByAuth0UserId(auth0UserId)
-                .orElseGet(() -> {
-                    log.info("Creating new user in database for Auth0 ID: {}", auth0UserId);
-                    return userRepository.save(User.builder()
-                            .auth0UserId(auth0UserId)
-                            .email(email)
-                            .name(name)
-                            .build());
-                });
-        
-        // Update user info if provided
-        boolean needsUpdate = false;
-        if (email != null && !email.isEmpty() && !email.equals(user.getEmail())) {
-            user.setEmail(email);
-            needsUpdate = true;
-        }
-        if (name != null && !name.isEmpty() && !name.equals(user.getName())) {
-            user.setName(name);
-            needsUpdate = true;
-        }
-        if (needsUpdate) {
-            userRepository.save(user);
-        }
-        
         if (itemId == null || itemId.isEmpty()) {
             throw new IllegalArgumentException("itemId is required when storing Plaid tokens");
         }
@@ -183,30 +150,57 @@ public class UserPlaidTokenService {
         // Encrypt token before storing
         String encryptedToken = tokenEncryptionService.encrypt(plaidAccessToken);
         
-        // Check if token already exists for this user and item
-        Optional<PlaidAccessToken> existingTokenOpt = plaidAccessTokenRepository.findByUserAndItemId(user, itemId);
-        
-        PlaidAccessToken plaidToken;
-        if (existingTokenOpt.isPresent()) {
-            // Update existing token
-            plaidToken = existingTokenOpt.get();
-            plaidToken.setAccessTokenEncrypted(encryptedToken);
-            plaidToken.setInstitutionId(institutionId);
-            plaidToken.setInstitutionName(institutionName);
-            log.info("Updating existing Plaid token for user: {} and item: {}", auth0UserId, itemId);
-        } else {
-            // Create new token - users can have multiple tokens (one per bank account/item)
-            plaidToken = PlaidAccessToken.builder()
-                    .user(user)
-                    .accessTokenEncrypted(encryptedToken)
-                    .itemId(itemId)
-                    .institutionId(institutionId)
-                    .institutionName(institutionName)
-                    .build();
-            log.info("Creating new Plaid token for user: {} and item: {}", auth0UserId, itemId);
-        }
-        
-        plaidAccessTokenRepository.save(plaidToken);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Find or create user
+            User user = userRepository.findByAuth0UserId(auth0UserId)
+                    .orElseGet(() -> {
+                        log.info("Creating new user in database for Auth0 ID: {}", auth0UserId);
+                        return userRepository.save(User.builder()
+                                .auth0UserId(auth0UserId)
+                                .email(email)
+                                .name(name)
+                                .build());
+                    });
+            
+            // Update user info if provided
+            boolean needsUpdate = false;
+            if (email != null && !email.isEmpty() && !email.equals(user.getEmail())) {
+                user.setEmail(email);
+                needsUpdate = true;
+            }
+            if (name != null && !name.isEmpty() && !name.equals(user.getName())) {
+                user.setName(name);
+                needsUpdate = true;
+            }
+            if (needsUpdate) {
+                userRepository.save(user);
+            }
+            
+            // Check if token already exists for this user and item
+            Optional<PlaidAccessToken> existingTokenOpt = plaidAccessTokenRepository.findByUserAndItemId(user, itemId);
+            
+            PlaidAccessToken plaidToken;
+            if (existingTokenOpt.isPresent()) {
+                // Update existing token
+                plaidToken = existingTokenOpt.get();
+                plaidToken.setAccessTokenEncrypted(encryptedToken);
+                plaidToken.setInstitutionId(institutionId);
+                plaidToken.setInstitutionName(institutionName);
+                log.info("Updating existing Plaid token for user: {} and item: {}", auth0UserId, itemId);
+            } else {
+                // Create new token - users can have multiple tokens (one per bank account/item)
+                plaidToken = PlaidAccessToken.builder()
+                        .user(user)
+                        .accessTokenEncrypted(encryptedToken)
+                        .itemId(itemId)
+                        .institutionId(institutionId)
+                        .institutionName(institutionName)
+                        .build();
+                log.info("Creating new Plaid token for user: {} and item: {}", auth0UserId, itemId);
+            }
+            
+            plaidAccessTokenRepository.save(plaidToken);
+        });
         log.info("Successfully stored Plaid token for user: {} and item: {}", auth0UserId, itemId);
     }
 
@@ -29,10 +29,21 @@ public class UserService {
      * @return The User entity (existing or newly created)
      * @throws IllegalArgumentException if token is invalid
      */
-    @Transactional
     public User getOrCreateUserFromToken(String accessToken) {
         // Validate token and extract user ID
         String auth0UserId = auth0Service.validateTokenAndExtractUserId(accessToken);
+        return getOrCreateUser(auth0UserId);
+    }
+
+    /**
+     * Gets or creates a user for an already validated Auth0 user ID.
+     * Controllers validate the token once and call this, so the JWT is not verified twice per request.
+     * 
+     * @param auth0UserId The Auth0 user ID (sub claim of a validated token)
+     * @return The User entity (existing or newly created)
+     */
+    @Transactional
+    public User getOrCreateUser(String auth0UserId) {
         log.info("Getting or creating user for Auth0 ID: {}", auth0UserId);
 
         // Check if user already exists
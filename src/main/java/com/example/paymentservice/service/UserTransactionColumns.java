@@ -0,0 +1,321 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.repository.projection.TransactionRow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable columnar snapshot of one user's stored transactions, sorted by date.
+ * Amounts are kept as long minor units (cents), dates as int epoch days, and category and
+ * merchant as int ids into per-user dictionaries, so aggregations run over primitive arrays
+ * without boxing. Amounts follow Plaid's sign convention: positive values are money out.
+ */
+public final class UserTransactionColumns {
+
+    /**
+     * Dictionary id used for a missing category or merchant.
+     */
+    public static final int NONE = 0;
+
+    private static final int MINOR_UNIT_SCALE = 2;
+
+    private final int size;
+    private final String[] plaidIds;
+    private final long[] amounts;
+    private final int[] epochDays;
+    private final int[] categoryIds;
+    private final int[] merchantIds;
+    private final String[] categories;
+    private final String[] merchants;
+
+    private UserTransactionColumns(int size, String[] plaidIds, long[] amounts, int[] epochDays,
+                                   int[] categoryIds, int[] merchantIds, String[] categories, String[] merchants) {
+        this.size = size;
+        this.plaidIds = plaidIds;
+        this.amounts = amounts;
+        this.epochDays = epochDays;
+        this.categoryIds = categoryIds;
+        this.merchantIds = merchantIds;
+        this.categories = categories;
+        this.merchants = merchants;
+    }
+
+    /**
+     * Builds a snapshot from projected rows (any order).
+     */
+    public static UserTransactionColumns of(Collection<TransactionRow> rows) {
+        Builder builder = new Builder(rows.size());
+        for (TransactionRow row : rows) {
+            builder.add(row);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a new snapshot with the given rows inserted or replaced and the given IDs removed.
+     * Dictionary ids of existing categories and merchants are preserved.
+     */
+    public UserTransactionColumns patched(Collection<TransactionRow> upserts, Collection<String> removedPlaidIds) {
+        Set<String> replaced = new HashSet<>(removedPlaidIds);
+        for (TransactionRow row : upserts) {
+            replaced.add(row.plaidTransactionId());
+        }
+
+        Builder builder = new Builder(this, size + upserts.size());
+        for (int i = 0; i < size; i++) {
+            if (!replaced.contains(plaidIds[i])) {
+                builder.add(plaidIds[i], amounts[i], epochDays[i], categoryIds[i], merchantIds[i]);
+            }
+        }
+        for (TransactionRow row : upserts) {
+            builder.add(row);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of category dictionary entries; category ids are in [0, categoryCount)
+     */
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    /**
+     * @param categoryId Dictionary id
+     * @return Category name, or null for {@link #NONE}
+     */
+    public String categoryName(int categoryId) {
+        return categories[categoryId];
+    }
+
+    /**
+     * @param merchantId Dictionary id
+     * @return Merchant name, or null for {@link #NONE}
+     */
+    public String merchantName(int merchantId) {
+        return merchants[merchantId];
+    }
+
+    /**
+     * Sums amounts per category id for transactions dated within [fromDay, toDay].
+     *
+     * @param fromDay First epoch day (inclusive)
+     * @param toDay Last epoch day (inclusive)
+     * @return Totals in minor units, indexed by category id
+     */
+    public long[] totalsByCategory(int fromDay, int toDay) {
+        long[] totals = new long[categories.length];
+        int end = upperBound(toDay);
+        for (int i = lowerBound(fromDay); i < end; i++) {
+            totals[categoryIds[i]] += amounts[i];
+        }
+        return totals;
+    }
+
+    /**
+     * Sums amounts per day for transactions dated within [fromDay, toDay].
+     *
+     * @param fromDay First epoch day (inclusive)
+     * @param toDay Last epoch day (inclusive)
+     * @return Totals in minor units, index 0 being fromDay
+     */
+    public long[] dailyTotals(int fromDay, int toDay) {
+        long[] totals = new long[Math.max(0, toDay - fromDay + 1)];
+        int end = upperBound(toDay);
+        for (int i = lowerBound(fromDay); i < end; i++) {
+            totals[epochDays[i] - fromDay] += amounts[i];
+        }
+        return totals;
+    }
+
+    /**
+     * Running balance change per day within [fromDay, toDay], starting from zero.
+     * Money out (positive Plaid amounts) lowers the balance.
+     *
+     * @param fromDay First epoch day (inclusive)
+     * @param toDay Last epoch day (inclusive)
+     * @return Cumulative net flow in minor units, index 0 being fromDay
+     */
+    public long[] runningBalance(int fromDay, int toDay) {
+        long[] balance = dailyTotals(fromDay, toDay);
+        long running = 0;
+        for (int i = 0; i < balance.length; i++) {
+            running -= balance[i];
+            balance[i] = running;
+        }
+        return balance;
+    }
+
+    /**
+     * Rough heap footprint used for the cache's memory bound.
+     */
+    public long estimatedBytes() {
+        long bytes = 64L + (long) size * (8 + 4 + 4 + 4 + 8);
+        for (int i = 0; i < size; i++) {
+            bytes += 48L + plaidIds[i].length();
+        }
+        for (String category : categories) {
+            bytes += category != null ? 48L + category.length() : 8L;
+        }
+        for (String merchant : merchants) {
+            bytes += merchant != null ? 48L + merchant.length() : 8L;
+        }
+        return bytes;
+    }
+
+    /**
+     * Index of the first transaction dated on or after the given day.
+     */
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Index just past the last transaction dated on or before the given day.
+     */
+    private int upperBound(int day) {
+        return day == Integer.MAX_VALUE ? size : lowerBound(day + 1);
+    }
+
+    static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts minor units back to a decimal amount for responses.
+     */
+    public static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, MINOR_UNIT_SCALE);
+    }
+
+    private static final class Builder {
+        private final Map<String, Integer> categoryDictionary = new HashMap<>();
+        private final Map<String, Integer> merchantDictionary = new HashMap<>();
+        private final List<String> categoryNames = new ArrayList<>();
+        private final List<String> merchantNames = new ArrayList<>();
+        private String[] plaidIds;
+        private long[] amounts;
+        private int[] epochDays;
+        private int[] categoryIds;
+        private int[] merchantIds;
+        private int size;
+
+        Builder(int capacity) {
+            categoryNames.add(null);
+            merchantNames.add(null);
+            allocate(Math.max(capacity, 8));
+        }
+
+        Builder(UserTransactionColumns base, int capacity) {
+            for (int id = 0; id < base.categories.length; id++) {
+                categoryNames.add(base.categories[id]);
+                if (id != NONE) {
+                    categoryDictionary.put(base.categories[id], id);
+                }
+            }
+            for (int id = 0; id < base.merchants.length; id++) {
+                merchantNames.add(base.merchants[id]);
+                if (id != NONE) {
+                    merchantDictionary.put(base.merchants[id], id);
+                }
+            }
+            allocate(Math.max(capacity, 8));
+        }
+
+        void add(TransactionRow row) {
+            add(row.plaidTransactionId(), toMinorUnits(row.amount()), (int) row.date().toEpochDay(),
+                    intern(row.category(), categoryDictionary, categoryNames),
+                    intern(row.merchantName(), merchantDictionary, merchantNames));
+        }
+
+        void add(String plaidId, long amount, int epochDay, int categoryId, int merchantId) {
+            if (size == amounts.length) {
+                grow();
+            }
+            plaidIds[size] = plaidId;
+            amounts[size] = amount;
+            epochDays[size] = epochDay;
+            categoryIds[size] = categoryId;
+            merchantIds[size] = merchantId;
+            size++;
+        }
+
+        UserTransactionColumns build() {
+            // Sort all columns by date through an index permutation
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(epochDays[a], epochDays[b]));
+
+            String[] sortedIds = new String[size];
+            long[] sortedAmounts = new long[size];
+            int[] sortedDays = new int[size];
+            int[] sortedCategories = new int[size];
+            int[] sortedMerchants = new int[size];
+            for (int i = 0; i < size; i++) {
+                int source = order[i];
+                sortedIds[i] = plaidIds[source];
+                sortedAmounts[i] = amounts[source];
+                sortedDays[i] = epochDays[source];
+                sortedCategories[i] = categoryIds[source];
+                sortedMerchants[i] = merchantIds[source];
+            }
+            return new UserTransactionColumns(size, sortedIds, sortedAmounts, sortedDays, sortedCategories,
+                    sortedMerchants, categoryNames.toArray(new String[0]), merchantNames.toArray(new String[0]));
+        }
+
+        private int intern(String value, Map<String, Integer> dictionary, List<String> names) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer id = dictionary.get(value);
+            if (id == null) {
+                id = names.size();
+                names.add(value);
+                dictionary.put(value, id);
+            }
+            return id;
+        }
+
+        private void allocate(int capacity) {
+            plaidIds = new String[capacity];
+            amounts = new long[capacity];
+            epochDays = new int[capacity];
+            categoryIds = new int[capacity];
+            merchantIds = new int[capacity];
+        }
+
+        private void grow() {
+            int capacity = amounts.length * 2;
+            plaidIds = Arrays.copyOf(plaidIds, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            merchantIds = Arrays.copyOf(merchantIds, capacity);
+        }
+    }
+}
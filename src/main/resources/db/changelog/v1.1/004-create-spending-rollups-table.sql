@@ -0,0 +1,33 @@
+--liquibase formatted sql
+
+--changeset payment-service:004-create-spending-rollups-table
+-- Per-user, per-category, per-month spending aggregates.
+-- Maintained incrementally by TransactionIngestionService in the same transaction
+-- that writes to 'transactions', so reports never have to scan raw rows.
+CREATE TABLE spending_rollups (
+    user_id UUID NOT NULL,
+    category VARCHAR(100) NOT NULL,
+    month DATE NOT NULL,
+    total_amount DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    txn_count BIGINT NOT NULL DEFAULT 0,
+    min_amount DECIMAL(19, 4),
+    max_amount DECIMAL(19, 4),
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_spending_rollups PRIMARY KEY (user_id, month, category),
+    CONSTRAINT fk_spending_rollup_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+--rollback DROP TABLE spending_rollups;
+
+--changeset payment-service:004-backfill-spending-rollups
+-- Seed rollups from any transactions already stored before this changeset.
+INSERT INTO spending_rollups (user_id, category, month, total_amount, txn_count, min_amount, max_amount)
+SELECT user_id,
+       COALESCE(category, 'Uncategorized'),
+       CAST(date_trunc('month', date) AS DATE),
+       SUM(amount),
+       COUNT(*),
+       MIN(amount),
+       MAX(amount)
+FROM transactions
+GROUP BY user_id, COALESCE(category, 'Uncategorized'), CAST(date_trunc('month', date) AS DATE);
@@ -0,0 +1,113 @@
+--liquibase formatted sql
+
+--changeset payment-service:005-create-transactions-partition-function splitStatements:false
+-- Creates one monthly partition of 'transactions' for every month from from_month
+-- up to months_ahead months after the current month. Rows that already landed in
+-- the default partition for a new month are moved into it. Returns the number of
+-- partitions created. Called by TransactionPartitionService on a schedule.
+CREATE OR REPLACE FUNCTION ensure_transactions_partitions(from_month DATE, months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := CAST(date_trunc('month', from_month) AS DATE);
+    last_month DATE := CAST(date_trunc('month', CURRENT_DATE) + make_interval(months => months_ahead) AS DATE);
+    month_end DATE;
+    partition_name TEXT;
+    insert_columns TEXT;
+    has_default_rows BOOLEAN;
+    created INTEGER := 0;
+BEGIN
+    -- Generated columns cannot be written, so row moves use an explicit column list
+    SELECT string_agg(quote_ident(attname), ', ' ORDER BY attnum) INTO insert_columns
+    FROM pg_attribute
+    WHERE attrelid = 'transactions'::regclass AND attnum > 0 AND NOT attisdropped AND attgenerated = '';
+
+    WHILE month_start <= last_month LOOP
+        month_end := CAST(month_start + INTERVAL '1 month' AS DATE);
+        partition_name := 'transactions_p' || to_char(month_start, 'YYYYMM');
+
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('SELECT EXISTS (SELECT 1 FROM transactions_default WHERE date >= %L AND date < %L)',
+                           month_start, month_end) INTO has_default_rows;
+
+            IF has_default_rows THEN
+                EXECUTE format('CREATE TEMP TABLE IF NOT EXISTS transactions_partition_moving '
+                               '(LIKE transactions INCLUDING DEFAULTS) ON COMMIT DROP');
+                EXECUTE format('WITH moved AS (DELETE FROM transactions_default WHERE date >= %L AND date < %L RETURNING %s) '
+                               'INSERT INTO transactions_partition_moving (%s) SELECT %s FROM moved',
+                               month_start, month_end, insert_columns, insert_columns, insert_columns);
+            END IF;
+
+            EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, month_end);
+
+            IF has_default_rows THEN
+                EXECUTE format('INSERT INTO transactions (%s) SELECT %s FROM transactions_partition_moving',
+                               insert_columns, insert_columns);
+                EXECUTE 'TRUNCATE transactions_partition_moving';
+            END IF;
+
+            created := created + 1;
+        END IF;
+
+        month_start := month_end;
+    END LOOP;
+
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+--rollback DROP FUNCTION ensure_transactions_partitions(DATE, INTEGER);
+
+--changeset payment-service:005-partition-transactions-table
+-- Migrate 'transactions' to declarative range partitioning on 'date'.
+-- The primary key and the Plaid ID constraint must include the partition key;
+-- global uniqueness of plaid_transaction_id is enforced by TransactionIngestionService.
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned RENAME CONSTRAINT transactions_pkey TO transactions_unpartitioned_pkey;
+ALTER TABLE transactions_unpartitioned RENAME CONSTRAINT transactions_plaid_transaction_id_key TO transactions_unpartitioned_plaid_transaction_id_key;
+DROP INDEX idx_transactions_user_id;
+DROP INDEX idx_transactions_plaid_transaction_id;
+DROP INDEX idx_transactions_user_date;
+DROP INDEX idx_transactions_date;
+
+CREATE TABLE transactions (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    plaid_transaction_id VARCHAR(255) NOT NULL,
+    account_id VARCHAR(255),
+    amount DECIMAL(19, 4) NOT NULL,
+    date DATE NOT NULL,
+    merchant_name VARCHAR(255),
+    category VARCHAR(100),
+    category_id VARCHAR(100),
+    name VARCHAR(500),
+    payment_channel VARCHAR(50),
+    pending BOOLEAN DEFAULT FALSE,
+    iso_currency_code VARCHAR(3),
+    unofficial_currency_code VARCHAR(10),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT transactions_pkey PRIMARY KEY (id, date),
+    CONSTRAINT uq_transactions_plaid_transaction_id UNIQUE (plaid_transaction_id, date),
+    CONSTRAINT fk_transaction_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (date);
+
+-- Catches rows outside the pre-created months; ensure_transactions_partitions moves them out
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+SELECT ensure_transactions_partitions(
+    COALESCE((SELECT MIN(date) FROM transactions_unpartitioned), CURRENT_DATE), 3);
+
+INSERT INTO transactions
+SELECT id, user_id, plaid_transaction_id, account_id, amount, date, merchant_name, category, category_id,
+       name, payment_channel, pending, iso_currency_code, unofficial_currency_code, created_at, updated_at
+FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+
+--changeset payment-service:005-create-partitioned-transactions-indexes
+-- Indexes on the partitioned parent cascade to every existing and future partition
+CREATE INDEX idx_transactions_user_id ON transactions(user_id);
+CREATE INDEX idx_transactions_plaid_transaction_id ON transactions(plaid_transaction_id);
+CREATE INDEX idx_transactions_user_date ON transactions(user_id, date);
+CREATE INDEX idx_transactions_date ON transactions(date);
@@ -0,0 +1,19 @@
+--liquibase formatted sql
+
+--changeset payment-service:006-enable-search-extensions
+-- pg_trgm provides fuzzy matching; btree_gin lets user_id share a GIN index with the search columns
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+--changeset payment-service:006-add-transactions-search-vector
+-- 'simple' configuration: merchant names should not be stemmed ("starbucks" stays "starbucks")
+ALTER TABLE transactions ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', COALESCE(merchant_name, '') || ' ' || COALESCE(name, ''))) STORED;
+
+--rollback ALTER TABLE transactions DROP COLUMN search_vector;
+
+--changeset payment-service:006-create-transactions-search-indexes
+-- Every search is scoped to one user, so user_id leads each index
+CREATE INDEX idx_transactions_user_search ON transactions USING GIN (user_id, search_vector);
+CREATE INDEX idx_transactions_user_merchant_trgm ON transactions USING GIN (user_id, merchant_name gin_trgm_ops);
+CREATE INDEX idx_transactions_user_name_trgm ON transactions USING GIN (user_id, name gin_trgm_ops);
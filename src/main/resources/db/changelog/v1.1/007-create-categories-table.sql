@@ -0,0 +1,80 @@
+--liquibase formatted sql
+
+--changeset payment-service:007-create-categories-table
+-- Dictionary of Plaid category hierarchy nodes with SMALLINT keys.
+-- 'path' is the full hierarchy joined with ' > ' (e.g. 'Food and Drink > Restaurants');
+-- root_id points at the top-level node (itself for roots) so hierarchical rollups group by integer.
+CREATE TABLE categories (
+    id SMALLINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    parent_id SMALLINT,
+    root_id SMALLINT,
+    name VARCHAR(100) NOT NULL,
+    path VARCHAR(500) NOT NULL,
+    depth SMALLINT NOT NULL,
+    plaid_category_id VARCHAR(100),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_categories_path UNIQUE (path),
+    CONSTRAINT fk_category_parent FOREIGN KEY (parent_id) REFERENCES categories(id)
+);
+
+-- Seed top-level categories from the primary category stored so far
+INSERT INTO categories (name, path, depth)
+SELECT DISTINCT category, category, 0
+FROM transactions
+WHERE category IS NOT NULL;
+
+UPDATE categories SET root_id = id;
+
+ALTER TABLE categories ALTER COLUMN root_id SET NOT NULL;
+ALTER TABLE categories ADD CONSTRAINT fk_category_root FOREIGN KEY (root_id) REFERENCES categories(id);
+
+--rollback DROP TABLE categories;
+
+--changeset payment-service:007-encode-transactions-category
+-- Replace the free-text category columns with a SMALLINT reference to the dictionary
+ALTER TABLE transactions ADD COLUMN category_key SMALLINT;
+
+UPDATE transactions t
+SET category_key = c.id
+FROM categories c
+WHERE c.path = t.category;
+
+ALTER TABLE transactions ADD CONSTRAINT fk_transaction_category
+    FOREIGN KEY (category_key) REFERENCES categories(id);
+
+ALTER TABLE transactions DROP COLUMN category;
+ALTER TABLE transactions DROP COLUMN category_id;
+
+--rollback ALTER TABLE transactions DROP CONSTRAINT fk_transaction_category;
+--rollback ALTER TABLE transactions ADD COLUMN category VARCHAR(100);
+--rollback ALTER TABLE transactions ADD COLUMN category_id VARCHAR(100);
+--rollback UPDATE transactions t SET category = c.path FROM categories c WHERE c.id = t.category_key;
+--rollback ALTER TABLE transactions DROP COLUMN category_key;
+
+--changeset payment-service:007-rekey-spending-rollups
+-- Rollups are derived data, so they are rebuilt keyed by category_key (0 = uncategorized)
+DROP TABLE spending_rollups;
+
+CREATE TABLE spending_rollups (
+    user_id UUID NOT NULL,
+    category_key SMALLINT NOT NULL,
+    month DATE NOT NULL,
+    total_amount DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    txn_count BIGINT NOT NULL DEFAULT 0,
+    min_amount DECIMAL(19, 4),
+    max_amount DECIMAL(19, 4),
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_spending_rollups PRIMARY KEY (user_id, month, category_key),
+    CONSTRAINT fk_spending_rollup_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+INSERT INTO spending_rollups (user_id, category_key, month, total_amount, txn_count, min_amount, max_amount)
+SELECT user_id,
+       COALESCE(category_key, 0),
+       CAST(date_trunc('month', date) AS DATE),
+       SUM(amount),
+       COUNT(*),
+       MIN(amount),
+       MAX(amount)
+FROM transactions
+GROUP BY user_id, COALESCE(category_key, 0), CAST(date_trunc('month', date) AS DATE);
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset payment-service:008-add-transactions-pending-transaction-id
+-- Plaid links a posted transaction to the pending one it replaces through pending_transaction_id
+ALTER TABLE transactions ADD COLUMN pending_transaction_id VARCHAR(255);
+
+--rollback ALTER TABLE transactions DROP COLUMN pending_transaction_id;
+
+--changeset payment-service:008-create-transactions-pending-indexes
+-- Partial indexes keep reconciliation cheap: only pending rows and linked posted rows are indexed
+CREATE INDEX idx_transactions_user_pending ON transactions (user_id, date) WHERE pending;
+CREATE INDEX idx_transactions_user_pending_link ON transactions (user_id, pending_transaction_id)
+    WHERE pending_transaction_id IS NOT NULL;
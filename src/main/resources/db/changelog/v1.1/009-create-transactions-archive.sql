@@ -0,0 +1,39 @@
+--liquibase formatted sql
+
+--changeset payment-service:009-create-merchants-table
+-- Dictionary of merchant names referenced by archived transactions
+CREATE TABLE merchants (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uq_merchants_name UNIQUE (name)
+);
+
+--rollback DROP TABLE merchants;
+
+--changeset payment-service:009-create-transactions-archive-table
+-- Cold storage for posted transactions older than the retention horizon.
+-- Compared to 'transactions': no audit timestamps, no pending flag (only posted rows are archived),
+-- no search vector, merchant and category dictionary-encoded, and a single (user_id, date) index.
+CREATE TABLE transactions_archive (
+    id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    plaid_transaction_id VARCHAR(255) NOT NULL,
+    account_id VARCHAR(255),
+    amount DECIMAL(19, 4) NOT NULL,
+    date DATE NOT NULL,
+    merchant_key INTEGER,
+    category_key SMALLINT,
+    name VARCHAR(500),
+    payment_channel VARCHAR(50),
+    iso_currency_code VARCHAR(3),
+    unofficial_currency_code VARCHAR(10),
+    pending_transaction_id VARCHAR(255),
+    CONSTRAINT pk_transactions_archive PRIMARY KEY (id),
+    CONSTRAINT fk_transaction_archive_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_transaction_archive_merchant FOREIGN KEY (merchant_key) REFERENCES merchants(id),
+    CONSTRAINT fk_transaction_archive_category FOREIGN KEY (category_key) REFERENCES categories(id)
+);
+
+CREATE INDEX idx_transactions_archive_user_date ON transactions_archive (user_id, date);
+
+--rollback DROP TABLE transactions_archive;
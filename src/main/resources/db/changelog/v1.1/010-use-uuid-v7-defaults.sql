@@ -0,0 +1,32 @@
+--liquibase formatted sql
+
+--changeset payment-service:010-create-uuid-generate-v7-function splitStatements:false
+-- RFC 9562 version 7 UUID: the first 48 bits are the Unix time in milliseconds, the rest random.
+-- Starts from a random v4 UUID, overwrites its first 6 bytes with the timestamp and flips the
+-- version nibble from 4 (0100) to 7 (0111). Used for rows inserted by SQL; the application
+-- generates its own keys with UuidV7Generator.
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS UUID AS $$
+    SELECT CAST(encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        placing substring(int8send(CAST(floor(extract(epoch FROM clock_timestamp()) * 1000) AS BIGINT)) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex') AS UUID);
+$$ LANGUAGE sql VOLATILE;
+
+--rollback DROP FUNCTION uuid_generate_v7();
+
+--changeset payment-service:010-use-uuid-v7-defaults
+-- New keys are time-ordered, so inserts append to the right edge of the primary key indexes.
+-- Existing v4 keys are left untouched: both versions are ordinary UUID values.
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE plaid_access_tokens ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE transactions ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+
+--rollback ALTER TABLE users ALTER COLUMN id SET DEFAULT gen_random_uuid();
+--rollback ALTER TABLE plaid_access_tokens ALTER COLUMN id SET DEFAULT gen_random_uuid();
+--rollback ALTER TABLE transactions ALTER COLUMN id SET DEFAULT gen_random_uuid();
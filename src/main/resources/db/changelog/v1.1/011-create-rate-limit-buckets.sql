@@ -0,0 +1,17 @@
+--liquibase formatted sql
+
+--changeset payment-service:011-create-rate-limit-buckets
+-- Token buckets shared by all instances when app.rate-limit.mode=postgres (see PostgresRateLimiter).
+-- Rows are updated by compare-and-swap on version; refilled_at_ms is database time in epoch milliseconds.
+CREATE TABLE rate_limit_buckets (
+    bucket_key VARCHAR(300) PRIMARY KEY,
+    tokens BIGINT NOT NULL,
+    refilled_at_ms BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Idle buckets are purged on a schedule
+CREATE INDEX idx_rate_limit_buckets_updated_at ON rate_limit_buckets (updated_at);
+
+--rollback DROP TABLE rate_limit_buckets;
@@ -0,0 +1,26 @@
+--liquibase formatted sql
+
+--changeset payment-service:012-add-transactions-archive-search-vector
+-- Archived rows keep merchant names in the merchants dictionary, so the vector only covers name;
+-- merchant matches go through the dictionary's own indexes below
+ALTER TABLE transactions_archive ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', COALESCE(name, ''))) STORED;
+
+--rollback ALTER TABLE transactions_archive DROP COLUMN search_vector;
+
+--changeset payment-service:012-create-transactions-archive-search-indexes
+-- Same shape as the hot table's search indexes: user_id leads each index
+CREATE INDEX idx_transactions_archive_user_search ON transactions_archive USING GIN (user_id, search_vector);
+CREATE INDEX idx_transactions_archive_user_name_trgm ON transactions_archive USING GIN (user_id, name gin_trgm_ops);
+CREATE INDEX idx_transactions_archive_user_merchant ON transactions_archive (user_id, merchant_key);
+
+--rollback DROP INDEX idx_transactions_archive_user_merchant;
+--rollback DROP INDEX idx_transactions_archive_user_name_trgm;
+--rollback DROP INDEX idx_transactions_archive_user_search;
+
+--changeset payment-service:012-create-merchants-search-indexes
+CREATE INDEX idx_merchants_name_search ON merchants USING GIN (to_tsvector('simple', name));
+CREATE INDEX idx_merchants_name_trgm ON merchants USING GIN (name gin_trgm_ops);
+
+--rollback DROP INDEX idx_merchants_name_trgm;
+--rollback DROP INDEX idx_merchants_name_search;
@@ -0,0 +1,57 @@
+package com.example.paymentservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(2000);
+
+    @Test
+    void release_ShouldShrinkTheLimitWhenLatencyRises() throws InterruptedException {
+        // Given: a limiter used at its limit with steady latency
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 0.2, 1.0, 0, Duration.ZERO);
+        runAtLimit(limiter, FAST, 200);
+        int steadyLimit = limiter.getLimit();
+
+        // When: upstream slows down
+        runAtLimit(limiter, SLOW, 50);
+
+        // Then
+        assertTrue(steadyLimit >= 20, "limit " + steadyLimit);
+        assertTrue(limiter.getLimit() < steadyLimit, "limit " + limiter.getLimit() + " vs " + steadyLimit);
+    }
+
+    @Test
+    void acquire_ShouldReserveHeadroomForCriticalRequests() throws InterruptedException {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 200, 0.2, 0.8, 0, Duration.ZERO);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.acquire(AdaptiveConcurrencyLimiter.Priority.STANDARD));
+        }
+
+        // When / Then
+        assertFalse(limiter.acquire(AdaptiveConcurrencyLimiter.Priority.STANDARD));
+        assertTrue(limiter.acquire(AdaptiveConcurrencyLimiter.Priority.CRITICAL));
+        assertEquals(9, limiter.getInFlight());
+    }
+
+    private static void runAtLimit(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) throws InterruptedException {
+        for (int round = 0; round < rounds; round++) {
+            int permits = 0;
+            while (limiter.acquire(AdaptiveConcurrencyLimiter.Priority.CRITICAL)) {
+                permits++;
+            }
+            for (int i = 0; i < permits; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
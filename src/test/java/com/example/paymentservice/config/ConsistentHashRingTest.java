@@ -0,0 +1,74 @@
+package com.example.paymentservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int USERS = 30_000;
+
+    @Test
+    void nodeFor_ShouldSpreadKeysEvenly() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("primary", "shard-1", "shard-2"), 160);
+
+        // When
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < USERS; i++) {
+            counts.merge(ring.nodeFor(user(i)), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(3, counts.size());
+        counts.forEach((node, count) ->
+                assertTrue(Math.abs(count - USERS / 3) < USERS / 10, node + " owns " + count + " keys"));
+    }
+
+    @Test
+    void addingNode_ShouldOnlyMoveKeysToTheNewNode() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("primary", "shard-1"), 160);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("primary", "shard-1", "shard-2"), 160);
+
+        // When
+        int moved = 0;
+        for (int i = 0; i < USERS; i++) {
+            String oldNode = before.nodeFor(user(i));
+            String newNode = after.nodeFor(user(i));
+            if (!oldNode.equals(newNode)) {
+                assertEquals("shard-2", newNode, "key moved between existing nodes");
+                moved++;
+            }
+        }
+
+        // Then: roughly a third of the keys move, all of them to the new node
+        assertTrue(Math.abs(moved - USERS / 3) < USERS / 10, "moved " + moved + " keys");
+    }
+
+    @Test
+    void nodeFor_ShouldNotDependOnNodeOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("primary", "shard-1", "shard-2"), 160);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("shard-2", "primary", "shard-1"), 160);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(ring.nodeFor(user(i)), reordered.nodeFor(user(i)));
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectDuplicateNodes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConsistentHashRing(List.of("primary", "primary"), 16));
+    }
+
+    private static String user(int i) {
+        return "auth0|user-" + i;
+    }
+}
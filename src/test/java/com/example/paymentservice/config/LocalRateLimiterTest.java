@@ -0,0 +1,62 @@
+package com.example.paymentservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRateLimiterTest {
+
+    @Test
+    void tryConsume_ShouldLimitEachKeySeparately() {
+        // Given
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(2, Duration.ofMinutes(1), 1000, Duration.ofMinutes(10));
+
+        // When
+        rateLimiter.tryConsume("ip:203.0.113.7", 1);
+        rateLimiter.tryConsume("ip:203.0.113.7", 1);
+        RateLimiter.Result noisy = rateLimiter.tryConsume("ip:203.0.113.7", 1);
+        RateLimiter.Result other = rateLimiter.tryConsume("user:auth0|123", 1);
+
+        // Then
+        assertFalse(noisy.allowed());
+        assertTrue(noisy.retryAfter().compareTo(Duration.ZERO) > 0);
+        assertTrue(other.allowed());
+    }
+
+    @Test
+    void chargeAndRefund_ShouldSettleTheBucket() {
+        // Given
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(5, Duration.ofMinutes(1), 1000, Duration.ofMinutes(10));
+        rateLimiter.tryConsume("user:auth0|123", 5);
+
+        // When: the request turned out to need two tokens fewer
+        rateLimiter.refund("user:auth0|123", 2);
+        RateLimiter.Result afterRefund = rateLimiter.tryConsume("user:auth0|123", 2);
+
+        // And: another request made more upstream calls than expected
+        rateLimiter.charge("user:auth0|123", 3);
+        RateLimiter.Result inDebt = rateLimiter.tryConsume("user:auth0|123", 1);
+
+        // Then
+        assertTrue(afterRefund.allowed());
+        assertFalse(inDebt.allowed());
+    }
+
+    @Test
+    void tryConsume_ShouldBoundTheNumberOfBuckets() {
+        // Given
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(100, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+
+        // When: a flood of distinct addresses
+        for (int i = 0; i < 10_000; i++) {
+            rateLimiter.tryConsume("ip:10.0." + (i / 256) + "." + (i % 256), 1);
+        }
+
+        // Then
+        rateLimiter.cleanUp();
+        assertTrue(rateLimiter.size() <= 100, "holds " + rateLimiter.size() + " buckets");
+    }
+}
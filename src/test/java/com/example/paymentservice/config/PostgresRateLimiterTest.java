@@ -0,0 +1,131 @@
+package com.example.paymentservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PostgresRateLimiterTest {
+
+    private static final String KEY = "ip:203.0.113.7";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final FakeBucketTable table = new FakeBucketTable();
+    private PostgresRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        ShardRouter shardRouter = mock(ShardRouter.class);
+        when(shardRouter.callOnShard(anyString(), any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(1)).get());
+        doAnswer(inv -> {
+            ((Runnable) inv.getArgument(1)).run();
+            return null;
+        }).when(shardRouter).runOnShard(anyString(), any());
+        RateLimiter fallback = new LocalRateLimiter(100, Duration.ofMinutes(1), 1000, Duration.ofMinutes(10));
+        rateLimiter = new PostgresRateLimiter(table, shardRouter, fallback, 100, Duration.ofMinutes(1),
+                10, Duration.ofSeconds(1), 1000, Duration.ofMinutes(10), nanos::get);
+    }
+
+    @Test
+    void tryConsume_ShouldReturnExpiredLeaseTokensToTheSharedBucket() {
+        // When: a slow client sends one request every 1.5 seconds, so each lease expires almost unused
+        for (int i = 0; i < 30; i++) {
+            assertTrue(rateLimiter.tryConsume(KEY, 1).allowed(), "request " + i);
+            nanos.addAndGet(Duration.ofMillis(1500).toNanos());
+        }
+
+        // Then: the bucket is charged one token per request, plus the nine left in the current lease
+        assertEquals(100 - 30 - 9, table.tokens);
+    }
+
+    @Test
+    void tryConsume_ShouldRefillTheWholeCapacityOncePerPeriod() {
+        // Given
+        assertTrue(rateLimiter.tryConsume(KEY, 100).allowed());
+
+        // When: half a period later nothing has come back yet
+        table.nowMillis += Duration.ofSeconds(30).toMillis();
+        RateLimiter.Result early = rateLimiter.tryConsume(KEY, 1);
+
+        // And: a full period after the bucket was created everything has
+        table.nowMillis += Duration.ofSeconds(30).toMillis();
+        RateLimiter.Result refilled = rateLimiter.tryConsume(KEY, 1);
+
+        // Then
+        assertFalse(early.allowed());
+        assertEquals(Duration.ofSeconds(30), early.retryAfter());
+        assertTrue(refilled.allowed());
+        assertEquals(90, table.tokens);
+    }
+
+    /**
+     * A single rate_limit_buckets row, driven by the SQL statements PostgresRateLimiter issues.
+     */
+    private static final class FakeBucketTable extends JdbcTemplate {
+
+        private boolean exists;
+        private long tokens;
+        private long refilledAtMillis;
+        private long version;
+        private long nowMillis = 1_700_000_000_000L;
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            if (!exists) {
+                return List.of();
+            }
+            try {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("tokens")).thenReturn(tokens);
+                when(rs.getLong("refilled_at_ms")).thenReturn(refilledAtMillis);
+                when(rs.getLong("version")).thenReturn(version);
+                when(rs.getLong("now_ms")).thenReturn(nowMillis);
+                return List.of(rowMapper.mapRow(rs, 0));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.startsWith("INSERT")) {
+                if (exists) {
+                    return 0;
+                }
+                exists = true;
+                tokens = (long) args[1];
+                refilledAtMillis = nowMillis;
+                return 1;
+            }
+            if (sql.contains("AND version = ?")) {
+                if ((long) args[3] != version) {
+                    return 0;
+                }
+                tokens = (long) args[0];
+                refilledAtMillis = (long) args[1];
+                version++;
+                return 1;
+            }
+            // Charge or refund: tokens = LEAST(tokens + delta, capacity)
+            tokens = Math.min(tokens + (long) args[0], (long) args[1]);
+            version++;
+            return 1;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.example.paymentservice.service.UserService;
 import com.example.paymentservice.service.UserPlaidTokenService;
 import com.example.paymentservice.service.Auth0Service;
 import com.example.paymentservice.service.TokenEncryptionService;
+import com.example.paymentservice.config.RateLimiter;
 import com.example.paymentservice.config.RateLimitingInterceptor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +17,6 @@ import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-import io.github.bucket4j.Bucket;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -52,7 +52,7 @@ class PlaidControllerTest {
     private RateLimitingInterceptor rateLimitingInterceptor;
     
     @MockBean
-    private Bucket rateLimitBucket;
+    private RateLimiter rateLimiter;
 
     @Test
     void createLinkToken_ShouldReturnLinkToken() throws Exception {
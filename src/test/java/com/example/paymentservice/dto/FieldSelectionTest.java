@@ -0,0 +1,60 @@
+package com.example.paymentservice.dto;
+
+import com.example.paymentservice.dto.plaid.TransactionsGetResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FieldSelectionTest {
+
+    private static final String PLAID_RESPONSE = "{"
+            + "\"accounts\":[{\"account_id\":\"acc-1\",\"name\":\"Checking\"}],"
+            + "\"item\":{\"item_id\":\"item-1\",\"logo_url\":\"https://logos.example.com/1.png\"},"
+            + "\"total_transactions\":1,"
+            + "\"transactions\":[{\"transaction_id\":\"tx-1\",\"date\":\"2024-01-02\",\"name\":\"Coffee\","
+            + "\"amount\":4.5,\"category\":[\"Food and Drink\"],\"account_id\":\"acc-1\"}]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void filter_ShouldOnlyBindSelectedFields() throws Exception {
+        // Given
+        FieldSelection fields = FieldSelection.parse("transactions.date,transactions.name,transactions.amount");
+
+        // When
+        TransactionsGetResponse response = objectMapper.readValue(
+                fields.filter(objectMapper.createParser(PLAID_RESPONSE)), TransactionsGetResponse.class);
+
+        // Then
+        TransactionsGetResponse.Transaction transaction = response.getTransactions().get(0);
+        assertEquals("Coffee", transaction.getName());
+        assertEquals(4.5, transaction.getAmount());
+        assertNull(transaction.getCategory());
+        assertNull(response.getAccounts());
+        assertNull(response.getItem());
+    }
+
+    @Test
+    void select_ShouldOnlyCopySelectedFields() throws Exception {
+        // Given
+        TransactionsGetResponse response = objectMapper.readValue(PLAID_RESPONSE, TransactionsGetResponse.class);
+
+        // When
+        JsonNode json = FieldSelection.parse("transactions.date, item").select(objectMapper, response);
+
+        // Then
+        assertEquals("2024-01-02", json.get("transactions").get(0).get("date").asText());
+        assertFalse(json.get("transactions").get(0).has("name"));
+        assertEquals("item-1", json.get("item").get("item_id").asText());
+        assertFalse(json.has("accounts"));
+    }
+
+    @Test
+    void parse_ShouldSelectEverythingWhenBlank() {
+        assertNull(FieldSelection.parse(" "));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.paymentservice.dto;
+
+import com.example.paymentservice.dto.plaid.AccountsGetResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserAccountsResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void from_ShouldKeepTheAccountsJsonShape() throws Exception {
+        // Given: one item without a logo in its accounts response, one account without balances
+        AccountsGetResponse.Item item = new AccountsGetResponse.Item();
+        item.setItemId("item-1");
+        item.setInstitutionId("ins_1");
+        AccountsGetResponse.Account account = new AccountsGetResponse.Account();
+        account.setAccountId("account-1");
+        account.setName("Checking");
+        AccountsGetResponse response = new AccountsGetResponse();
+        response.setItem(item);
+        response.setAccounts(List.of(account));
+
+        // When
+        JsonNode json = objectMapper.valueToTree(UserAccountsResponse.from(
+                List.of(response), Map.of("item-1", "https://logos.example.com/1.png")));
+
+        // Then
+        JsonNode accountJson = json.get("accounts").get(0);
+        assertEquals(1, json.get("total_accounts").asInt());
+        assertEquals("account-1", accountJson.get("account_id").asText());
+        assertTrue(accountJson.has("mask") && accountJson.get("mask").isNull());
+        assertFalse(accountJson.has("balances"));
+        assertEquals("https://logos.example.com/1.png", accountJson.get("institution_icon_url").asText());
+        assertEquals("https://logos.example.com/1.png", json.get("items").get(0).get("institution_icon_url").asText());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.paymentservice.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    private static final long NOW = 1_717_171_717_171L;
+
+    @Test
+    void generateUuid_ShouldEncodeVersionVariantAndTimestamp() {
+        // When
+        UUID uuid = UuidV7Generator.generateUuid(NOW + 60_000);
+
+        // Then
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue((uuid.getMostSignificantBits() >>> 16) >= NOW + 60_000);
+    }
+
+    @Test
+    void generateUuid_ShouldIncreaseWithinTheSameMillisecond() {
+        // Given
+        UUID previous = UuidV7Generator.generateUuid(NOW);
+
+        // When / Then: more keys than the 12-bit counter holds, so the counter overflows too
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = UuidV7Generator.generateUuid(NOW);
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                    previous + " is not before " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void generateUuid_ShouldSortByCreationTime() {
+        UUID earlier = UuidV7Generator.generateUuid();
+        UUID later = UuidV7Generator.generateUuid();
+
+        // PostgreSQL orders UUIDs bytewise, i.e. by unsigned most significant bits first
+        assertTrue(Long.compareUnsigned(earlier.getMostSignificantBits(), later.getMostSignificantBits()) < 0);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.repository.TransactionRepository;
+import com.example.paymentservice.repository.projection.TransactionRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionColumnCacheTest {
+
+    private static final String AUTH0_USER_ID = "auth0|123";
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private TransactionColumnCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TransactionColumnCache(transactionRepository, 1 << 20, TTL, nanos::get);
+        when(transactionRepository.findAllRowsByAuth0UserId(AUTH0_USER_ID))
+                .thenReturn(List.of(row("t1")), List.of(row("t1"), row("t2")));
+    }
+
+    @Test
+    void get_ShouldReloadSnapshotOnceTheTtlHasPassed() {
+        // Given
+        cache.get(AUTH0_USER_ID);
+        nanos.addAndGet(TTL.minusSeconds(1).toNanos());
+        // A sync on this instance patches the snapshot but does not extend its TTL
+        cache.applySync(AUTH0_USER_ID, List.of(), List.of());
+        UserTransactionColumns beforeExpiry = cache.get(AUTH0_USER_ID);
+
+        // When: another instance added t2 and the TTL has passed
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        UserTransactionColumns afterExpiry = cache.get(AUTH0_USER_ID);
+
+        // Then
+        assertEquals(1, beforeExpiry.size());
+        assertEquals(2, afterExpiry.size());
+        verify(transactionRepository, times(2)).findAllRowsByAuth0UserId(AUTH0_USER_ID);
+    }
+
+    @Test
+    void evictAll_ShouldDropEverySnapshot() {
+        // Given
+        cache.get(AUTH0_USER_ID);
+
+        // When
+        cache.evictAll();
+
+        // Then
+        assertEquals(0, cache.usedBytes());
+        assertEquals(2, cache.get(AUTH0_USER_ID).size());
+    }
+
+    private static TransactionRow row(String plaidId) {
+        return new TransactionRow(plaidId, "acc-a", new BigDecimal("10.00"), LocalDate.of(2024, 3, 1),
+                "Coffee", null, "Food", false);
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.plaid.TransactionsGetResponse;
+import com.example.paymentservice.entity.Transaction;
+import com.example.paymentservice.entity.User;
+import com.example.paymentservice.repository.SpendingRollupRepository;
+import com.example.paymentservice.repository.TransactionRepository;
+import com.example.paymentservice.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionIngestionServiceTest {
+
+    private static final String AUTH0_USER_ID = "auth0|123";
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+    private static final LocalDate END = LocalDate.of(2024, 3, 31);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private SpendingRollupRepository spendingRollupRepository;
+
+    @Mock
+    private TransactionColumnCache transactionColumnCache;
+
+    @Mock
+    private CategoryDictionary categoryDictionary;
+
+    @Mock
+    private PendingTransactionReconciler pendingTransactionReconciler;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+    @InjectMocks
+    private TransactionIngestionService transactionIngestionService;
+
+    private final User user = User.builder().id(UUID.randomUUID()).auth0UserId(AUTH0_USER_ID).build();
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(userRepository.findByAuth0UserId(AUTH0_USER_ID)).thenReturn(Optional.of(user));
+        when(transactionArchiveService.horizon()).thenReturn(LocalDate.of(2023, 1, 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void ingestTransactions_ShouldOnlyRemoveRowsOfTheRespondingItem() {
+        // Given: one stored row on each of two items
+        Transaction gone = stored("t1", "acc-a", "10.00");
+        Transaction otherItem = stored("t2", "acc-b", "20.00");
+        when(transactionRepository.findByUserAndDateBetween(user, START, END)).thenReturn(List.of(gone, otherItem));
+
+        // When: the first item's complete response no longer returns t1
+        transactionIngestionService.ingestTransactions(AUTH0_USER_ID, START, END,
+                response(List.of(fetched("t3", "acc-a", 5.0)), 1, "acc-a"));
+
+        // Then
+        verify(transactionRepository).lockUserForIngestion(user.getId());
+        ArgumentCaptor<List<Transaction>> removed = removedCaptor();
+        verify(transactionRepository).deleteAll(removed.capture());
+        assertEquals(List.of(gone), removed.getValue());
+        verify(spendingRollupRepository).subtractFromRollup(
+                eq(user.getId()), eq((short) 1), eq(START), eq(new BigDecimal("10.00")), eq(1L));
+        verify(spendingRollupRepository).addToRollup(
+                eq(user.getId()), anyShort(), eq(START), eq(BigDecimal.valueOf(5.0)), eq(1L), any(), any());
+    }
+
+    @Test
+    void ingestTransactions_ShouldNotRemoveRowsFromPartialResponse() {
+        // Given
+        Transaction stored = stored("t1", "acc-a", "10.00");
+        when(transactionRepository.findByUserAndDateBetween(user, START, END)).thenReturn(List.of(stored));
+
+        // When: Plaid has more pages than were fetched
+        transactionIngestionService.ingestTransactions(AUTH0_USER_ID, START, END,
+                response(List.of(fetched("t3", "acc-a", 5.0)), 2, "acc-a"));
+
+        // Then
+        ArgumentCaptor<List<Transaction>> removed = removedCaptor();
+        verify(transactionRepository).deleteAll(removed.capture());
+        assertEquals(List.of(), removed.getValue());
+        verify(spendingRollupRepository, never()).subtractFromRollup(any(), anyShort(), any(), any(), anyLong());
+    }
+
+    @Test
+    void ingestTransactions_ShouldInternCategoriesBeforeTheTransactionOpens() {
+        // Given
+        when(transactionRepository.findByUserAndDateBetween(user, START, END)).thenReturn(List.of());
+        TransactionsGetResponse.Transaction coffee = fetched("t1", "acc-a", 5.0);
+        coffee.setCategory(List.of("Food and Drink", "Coffee Shop"));
+        // Then: a new category takes its own connection, so it must be interned before the transaction opens
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            verify(categoryDictionary).intern(coffee.getCategory(), null);
+            return null;
+        });
+
+        // When
+        transactionIngestionService.ingestTransactions(AUTH0_USER_ID, START, END,
+                response(List.of(coffee), 1, "acc-a"));
+
+        // And
+        verify(transactionManager).getTransaction(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Transaction>> removedCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private Transaction stored(String plaidId, String accountId, String amount) {
+        return Transaction.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .plaidTransactionId(plaidId)
+                .accountId(accountId)
+                .amount(new BigDecimal(amount))
+                .date(START)
+                .categoryKey((short) 1)
+                .build();
+    }
+
+    private static TransactionsGetResponse.Transaction fetched(String plaidId, String accountId, double amount) {
+        TransactionsGetResponse.Transaction transaction = new TransactionsGetResponse.Transaction();
+        transaction.setTransactionId(plaidId);
+        transaction.setAccountId(accountId);
+        transaction.setAmount(amount);
+        transaction.setDate(START.toString());
+        transaction.setName("Coffee");
+        return transaction;
+    }
+
+    private static TransactionsGetResponse response(List<TransactionsGetResponse.Transaction> transactions,
+                                                    int total, String accountId) {
+        TransactionsGetResponse.Account account = new TransactionsGetResponse.Account();
+        account.setAccountId(accountId);
+        TransactionsGetResponse response = new TransactionsGetResponse();
+        response.setTransactions(transactions);
+        response.setTotalTransactions(total);
+        response.setAccounts(List.of(account));
+        return response;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.dto.plaid.TransactionsGetResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDashboardServiceTest {
+
+    private static final String AUTH0_USER_ID = "auth0|123";
+    private static final LocalDate START = LocalDate.of(2024, 3, 1);
+    private static final LocalDate END = LocalDate.of(2024, 3, 31);
+
+    @Mock
+    private UserPlaidTokenService userPlaidTokenService;
+
+    @Mock
+    private PlaidService plaidService;
+
+    @Mock
+    private TransactionIngestionService transactionIngestionService;
+
+    private UserDashboardService userDashboardService;
+
+    @BeforeEach
+    void setUp() {
+        userDashboardService = new UserDashboardService(userPlaidTokenService, plaidService,
+                transactionIngestionService, new TaskExecutorAdapter(Runnable::run));
+        ReflectionTestUtils.setField(userDashboardService, "enableReports", true);
+        when(userPlaidTokenService.getAllPlaidAccessTokensForUser(AUTH0_USER_ID))
+                .thenReturn(List.of("token-a", "token-b"));
+    }
+
+    @Test
+    void getDashboard_ShouldNotIngestWhenAnyItemIsPartial() {
+        // Given: the second item has more transactions than Plaid returned
+        when(plaidService.getTransactions("token-a", START, END)).thenReturn(response("acc-a", 1, 1));
+        when(plaidService.getTransactions("token-b", START, END)).thenReturn(response("acc-b", 1, 3));
+
+        // When
+        userDashboardService.getDashboard(AUTH0_USER_ID, START, END);
+
+        // Then
+        verify(transactionIngestionService, never()).ingestTransactions(any(), any(), any(), any());
+    }
+
+    @Test
+    void getDashboard_ShouldIngestCombinedResponseWhenEveryItemIsComplete() {
+        // Given
+        when(plaidService.getTransactions("token-a", START, END)).thenReturn(response("acc-a", 2, 2));
+        when(plaidService.getTransactions("token-b", START, END)).thenReturn(response("acc-b", 1, 1));
+
+        // When
+        userDashboardService.getDashboard(AUTH0_USER_ID, START, END);
+
+        // Then
+        ArgumentCaptor<TransactionsGetResponse> combined = ArgumentCaptor.forClass(TransactionsGetResponse.class);
+        verify(transactionIngestionService).ingestTransactions(eq(AUTH0_USER_ID), eq(START), eq(END), combined.capture());
+        assertEquals(3, combined.getValue().getTransactions().size());
+        assertEquals(3, combined.getValue().getTotalTransactions());
+        assertEquals(2, combined.getValue().getAccounts().size());
+    }
+
+    private static TransactionsGetResponse response(String accountId, int returned, int total) {
+        TransactionsGetResponse.Account account = new TransactionsGetResponse.Account();
+        account.setAccountId(accountId);
+        List<TransactionsGetResponse.Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < returned; i++) {
+            TransactionsGetResponse.Transaction transaction = new TransactionsGetResponse.Transaction();
+            transaction.setTransactionId(accountId + "-t" + i);
+            transaction.setAccountId(accountId);
+            transaction.setAmount(10.0);
+            transaction.setDate(START.plusDays(i).toString());
+            transactions.add(transaction);
+        }
+        TransactionsGetResponse response = new TransactionsGetResponse();
+        response.setTransactions(transactions);
+        response.setTotalTransactions(total);
+        response.setAccounts(List.of(account));
+        return response;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.paymentservice.service;
+
+import com.example.paymentservice.repository.projection.TransactionRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserTransactionColumnsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Test
+    void aggregates_ShouldSumByCategoryAndDay() {
+        // Given
+        UserTransactionColumns columns = UserTransactionColumns.of(List.of(
+                row("t3", "12.50", DAY.plusDays(2), "Food"),
+                row("t1", "10.00", DAY, "Food"),
+                row("t2", "-100.00", DAY.plusDays(1), null),
+                row("t4", "99.99", DAY.plusDays(10), "Travel")));
+        int from = (int) DAY.toEpochDay();
+        int to = from + 2;
+
+        // When
+        long[] byCategory = columns.totalsByCategory(from, to);
+        long[] daily = columns.dailyTotals(from, to);
+        long[] balance = columns.runningBalance(from, to);
+
+        // Then
+        assertEquals(4, columns.size());
+        for (int id = 0; id < byCategory.length; id++) {
+            String category = columns.categoryName(id);
+            long expected = "Food".equals(category) ? 2250L : category == null ? -10000L : 0L;
+            assertEquals(expected, byCategory[id], "category " + category);
+        }
+        assertArrayEquals(new long[]{1000L, -10000L, 1250L}, daily);
+        assertArrayEquals(new long[]{-1000L, 9000L, 7750L}, balance);
+    }
+
+    @Test
+    void patched_ShouldReplaceAndRemoveRows() {
+        // Given
+        UserTransactionColumns columns = UserTransactionColumns.of(List.of(
+                row("t1", "10.00", DAY, "Food"),
+                row("t2", "20.00", DAY, "Food")));
+        int day = (int) DAY.toEpochDay();
+
+        // When
+        UserTransactionColumns patched = columns.patched(
+                List.of(row("t1", "15.00", DAY.plusDays(1), "Food"), row("t3", "5.00", DAY, "Shops")),
+                List.of("t2"));
+
+        // Then
+        assertEquals(2, patched.size());
+        assertArrayEquals(new long[]{500L, 1500L}, patched.dailyTotals(day, day + 1));
+        assertArrayEquals(new long[]{3000L, 0L}, columns.dailyTotals(day, day + 1));
+        assertEquals(new BigDecimal("20.00"), UserTransactionColumns.fromMinorUnits(2000L));
+    }
+
+    private static TransactionRow row(String id, String amount, LocalDate date, String category) {
+        return new TransactionRow(id, "acc-1", new BigDecimal(amount), date, "name " + id, null, category, false);
+    }
+}